@@ -0,0 +1,24 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запускает бенчмарки с профилировщиком gc, чтобы вместе с пропускной способностью выводилась
+ * скорость выделения памяти (gc.alloc.rate, gc.alloc.rate.norm).
+ * Запуск: mvn -pl benchmarks -am package -DskipTests && java -jar benchmarks/target/benchmarks.jar [опции JMH]
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPeriod;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingTimeline;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пересечения бронирований, которая выполняется при каждом создании и изменении бронирования.
+ * Фильтрация списков бронирований по состоянию выполняется в базе, поэтому здесь не измеряется.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingTimelineBenchmark {
+    private static final long ITEM_ID = 1;
+
+    @Param({"10", "1000", "100000"})
+    private int bookings;
+
+    private BookingTimeline timeline;
+    private LocalDateTime freeStart;
+    private LocalDateTime busyStart;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1);
+        User booker = Fixtures.user(2);
+        Item item = Fixtures.item(ITEM_ID, owner);
+        List<BookingPeriod> periods = new ArrayList<>(bookings);
+        for (int i = 1; i <= bookings; i++) {
+            periods.add(period(Fixtures.booking(i, item, booker)));
+        }
+        timeline = new BookingTimeline(repository(periods));
+        busyStart = Fixtures.START.plusDays(bookings / 2).plusHours(6);
+        freeStart = Fixtures.START.plusDays(bookings / 2).plusHours(13);
+        if (!hasOverlap() || hasNoOverlap()) {
+            throw new IllegalStateException("Периоды бронирований не загружены в BookingTimeline");
+        }
+    }
+
+    @Benchmark
+    public boolean hasOverlap() {
+        return timeline.hasOverlap(ITEM_ID, 0, busyStart, busyStart.plusHours(1));
+    }
+
+    @Benchmark
+    public boolean hasNoOverlap() {
+        return timeline.hasOverlap(ITEM_ID, 0, freeStart, freeStart.plusHours(1));
+    }
+
+    @Benchmark
+    public List<BookingPeriod> findPeriodsForWeek() {
+        return timeline.findPeriods(ITEM_ID, freeStart, freeStart.plusDays(7));
+    }
+
+    /**
+     * Репозиторий, который отдаёт периоды предмета при первом обращении BookingTimeline к нему
+     * (findByItemIdAndStatusIn). Остальные методы возвращают пустые списки. Вне транзакции
+     * BookingTimeline.put меняет только уже загруженные предметы, поэтому заполнять его через put нельзя.
+     */
+    private static BookingRepository repository(List<BookingPeriod> periods) {
+        return (BookingRepository) Proxy.newProxyInstance(BookingRepository.class.getClassLoader(),
+                new Class<?>[]{BookingRepository.class},
+                (proxy, method, args) -> {
+                    if ("findByItemIdAndStatusIn".equals(method.getName())) {
+                        return periods;
+                    }
+                    return List.class.equals(method.getReturnType()) ? Collections.emptyList() : null;
+                });
+    }
+
+    private static BookingPeriod period(Booking booking) {
+        return new BookingPeriod() {
+            @Override
+            public long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return booking.getStart();
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return booking.getEnd();
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сущности с заполненными полями для бенчмарков.
+ */
+final class Fixtures {
+    static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Пётр " + id);
+        user.setEmail("user" + id + "@email.com");
+        return user;
+    }
+
+    static Item item(long id, User owner) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Дрель " + id);
+        item.setDescription("Аккумуляторная дрель с двумя батареями и кейсом");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequestId(id);
+        return item;
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(START.plusDays(id));
+        booking.setEnd(START.plusDays(id).plusHours(12));
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+
+    static Comment comment(long id, Item item, User author) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText("Отличная дрель, спасибо");
+        comment.setCreated(START.minusDays(id));
+        return comment;
+    }
+}
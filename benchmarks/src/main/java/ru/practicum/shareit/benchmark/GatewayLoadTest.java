@@ -0,0 +1,274 @@
+package ru.practicum.shareit.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузочный тест шлюза в режимах shareit-server.client=blocking и reactive.
+ * Вместо сервера поднимается заглушка, отвечающая на GET /bookings/owner с задержкой, чтобы измерялся только шлюз.
+ * Каждый режим запускается отдельным процессом из собранного jar шлюза, после чего connections клиентов
+ * по замкнутому циклу шлют запросы warmup + duration секунд; выводятся пропускная способность и p50/p99/max.
+ * Клиенты распределяются по clients экземплярам HttpClient: у каждого свой поток селектора и свой пул потоков,
+ * иначе при 2000 соединений узким местом становится единственный селектор генератора нагрузки. Строка direct -
+ * те же запросы напрямую к заглушке, без шлюза: это потолок генератора и заглушки на этой машине, и цифры шлюза
+ * имеют смысл, только пока заметно ниже него. С -Drate=N соединения остаются открытыми, но каждое шлет запрос раз в
+ * connections / N секунд, то есть суммарно N запросов в секунду; задержка считается от запланированного момента
+ * отправки, поэтому очередь в генераторе тоже попадает в p99. Так при нагрузке ниже насыщения видна задержка самого
+ * шлюза, а не длина очереди замкнутого цикла.
+ * Запуск: mvn -pl gateway,benchmarks -am package -DskipTests
+ * && java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmark.GatewayLoadTest
+ * Параметры: -Dconnections=2000 -Dclients=16 -Dclient.threads=4 -Drate=0 (запросов в секунду, 0 - без пауз)
+ * -Dwarmup=30 -Dduration=30 -Dlatency=50 (мс) -Dgateway.jar=путь к jar шлюза.
+ */
+public final class GatewayLoadTest {
+    private static final int CONNECTIONS = Integer.getInteger("connections", 2000);
+    private static final int CLIENTS = Integer.getInteger("clients", 16);
+    private static final int CLIENT_THREADS = Integer.getInteger("client.threads", 4);
+    private static final int RATE = Integer.getInteger("rate", 0);
+    private static final int WARMUP_SECONDS = Integer.getInteger("warmup", 30);
+    private static final int DURATION_SECONDS = Integer.getInteger("duration", 30);
+    private static final int LATENCY_MILLIS = Integer.getInteger("latency", 50);
+    private static final Path GATEWAY_JAR = Paths.get(System.getProperty("gateway.jar",
+            "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar"));
+    private static final String DIRECT = "direct";
+    private static final String[] MODES = {DIRECT, "blocking", "reactive"};
+    private static final int MAX_LATENCY_MILLIS = 60_000;
+    private static final byte[] BOOKINGS = bookingsJson(20);
+
+    private GatewayLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        upstream.setExecutor(Executors.newFixedThreadPool(8));
+        upstream.createContext("/bookings/owner", exchange -> respondLater(exchange, scheduler));
+        upstream.start();
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-10s %12s %10s %10s %10s %8s",
+                "mode", "req/s", "p50, мс", "p99, мс", "max, мс", "errors"));
+        try {
+            for (String mode : MODES) {
+                report.add(run(mode, upstream.getAddress().getPort()));
+            }
+        } finally {
+            upstream.stop(0);
+            scheduler.shutdownNow();
+        }
+        System.out.printf("%d соединений через %d HttpClient, %s, задержка сервера %d мс, замер %d с%n",
+                CONNECTIONS, CLIENTS, RATE > 0 ? RATE + " запросов/с" : "без пауз", LATENCY_MILLIS,
+                DURATION_SECONDS);
+        report.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static String run(String mode, int upstreamPort) throws Exception {
+        if (DIRECT.equals(mode)) {
+            return measure(mode, upstreamPort);
+        }
+        int port = freePort();
+        Process gateway = new ProcessBuilder("java", "-jar", GATEWAY_JAR.toString(),
+                "--server.port=" + port,
+                "--shareit-server.url=http://localhost:" + upstreamPort,
+                "--shareit-server.client=" + mode,
+                "--shareit-server.pool.max-total=" + CONNECTIONS,
+                "--shareit-server.pool.max-per-route=" + CONNECTIONS,
+                "--server.tomcat.max-connections=" + (CONNECTIONS * 2),
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN")
+                .inheritIO()
+                .start();
+        try {
+            awaitStarted(port);
+            return measure(mode, port);
+        } finally {
+            gateway.destroy();
+            gateway.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String measure(String mode, int port) {
+        ScheduledExecutorService pacer = Executors.newSingleThreadScheduledExecutor();
+        List<ExecutorService> clientExecutors = new ArrayList<>();
+        List<HttpClient> clients = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(CLIENT_THREADS);
+            clientExecutors.add(clientExecutor);
+            clients.add(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build());
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/bookings/owner?state=ALL"))
+                    .header("X-Sharer-User-Id", "1")
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            Load warmup = new Load(clients, request, pacer);
+            warmup.run(WARMUP_SECONDS);
+            Load load = new Load(clients, request, pacer);
+            load.run(DURATION_SECONDS);
+            return String.format("%-10s %12.0f %10d %10d %10d %8d", mode,
+                    load.completed.sum() / (double) DURATION_SECONDS,
+                    load.percentile(0.5), load.percentile(0.99), load.percentile(1.0), load.errors.sum());
+        } finally {
+            pacer.shutdownNow();
+            clientExecutors.forEach(ExecutorService::shutdownNow);
+        }
+    }
+
+    private static void respondLater(HttpExchange exchange, ScheduledExecutorService scheduler) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        scheduler.schedule(() -> {
+            try (OutputStream body = exchange.getResponseBody()) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, BOOKINGS.length);
+                body.write(BOOKINGS);
+            } catch (IOException e) {
+                exchange.close();
+            }
+        }, LATENCY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void awaitStarted(int port) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // шлюз ещё запускается
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Шлюз не запустился за 2 минуты");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static byte[] bookingsJson(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\",\"status\":\"WAITING\"")
+                    .append(",\"booker\":{\"id\":2,\"name\":\"Пётр\",\"email\":\"petr@email.com\"}")
+                    .append(",\"item\":{\"id\":").append(i).append(",\"name\":\"Дрель\",\"description\":\"Простая дрель\"")
+                    .append(",\"available\":true}}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Замкнутый цикл: каждый из connections клиентов отправляет следующий запрос после ответа на предыдущий - сразу
+     * или, если задан rate, в следующий момент по своему расписанию, а при опоздании тоже сразу.
+     * Клиент i работает через HttpClient номер i % clients. Задержки считаются гистограммой с шагом в 1 мс.
+     */
+    private static class Load {
+        private final List<HttpClient> clients;
+        private final HttpRequest request;
+        private final ScheduledExecutorService pacer;
+        private final long intervalNanos = RATE > 0 ? TimeUnit.SECONDS.toNanos(CONNECTIONS) / RATE : 0;
+        private final AtomicLongArray latencies = new AtomicLongArray(MAX_LATENCY_MILLIS + 1);
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private volatile long deadline;
+
+        Load(List<HttpClient> clients, HttpRequest request, ScheduledExecutorService pacer) {
+            this.clients = clients;
+            this.request = request;
+            this.pacer = pacer;
+        }
+
+        void run(int seconds) {
+            long now = System.nanoTime();
+            deadline = now + TimeUnit.SECONDS.toNanos(seconds);
+            List<CompletableFuture<Void>> users = new ArrayList<>(CONNECTIONS);
+            for (int i = 0; i < CONNECTIONS; i++) {
+                CompletableFuture<Void> user = new CompletableFuture<>();
+                next(clients.get(i % clients.size()), user, now + intervalNanos * i / CONNECTIONS);
+                users.add(user);
+            }
+            CompletableFuture.allOf(users.toArray(new CompletableFuture[0])).join();
+        }
+
+        private void next(HttpClient client, CompletableFuture<Void> user, long start) {
+            long now = System.nanoTime();
+            if (Math.max(now, start) >= deadline) {
+                user.complete(null);
+                return;
+            }
+            if (start > now) {
+                pacer.schedule(() -> send(client, user, start), start - now, TimeUnit.NANOSECONDS);
+            } else {
+                send(client, user, start);
+            }
+        }
+
+        private void send(HttpClient client, CompletableFuture<Void> user, long start) {
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, e) -> {
+                        if (e != null || response.statusCode() != 200) {
+                            errors.increment();
+                        } else {
+                            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                            latencies.incrementAndGet((int) Math.min(millis, MAX_LATENCY_MILLIS));
+                            completed.increment();
+                        }
+                        next(client, user, intervalNanos > 0 ? start + intervalNanos : System.nanoTime());
+                    });
+        }
+
+        long percentile(double quantile) {
+            long total = completed.sum();
+            long threshold = Math.max(1, (long) Math.ceil(total * quantile));
+            long seen = 0;
+            for (int millis = 0; millis <= MAX_LATENCY_MILLIS; millis++) {
+                seen += latencies.get(millis);
+                if (seen >= threshold) {
+                    return millis;
+                }
+            }
+            return MAX_LATENCY_MILLIS;
+        }
+    }
+}
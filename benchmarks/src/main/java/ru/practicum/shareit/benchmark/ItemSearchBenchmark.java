@@ -0,0 +1,142 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск предметов like-запросом ItemRepository.search и через индекс триграмм TrigramItemSearchEngine
+ * на одной и той же базе. Контекст сервера поднимается с настройками из application.properties, то есть
+ * на PostgreSQL, где like ускоряют GIN индексы pg_trgm по upper(name) и upper(description) из миграции
+ * postgresql/V2. Настройки базы меняются системными свойствами форка, профиль ci переключает на H2 без этих
+ * индексов. Предметы владельца benchmark@email.com досоздаются до заданного количества и остаются в базе.
+ * Запуск: java -jar benchmarks/target/benchmarks.jar ItemSearchBenchmark
+ * [-jvmArgsAppend "-Dspring.datasource.url=jdbc:postgresql://host:5432/shareit"] [-p items=100000]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final String[] NAMES = {"Дрель", "Перфоратор", "Шуруповерт", "Отвертка", "Болгарка",
+        "Лобзик", "Рубанок", "Стамеска", "Молоток", "Ключ", "Пила", "Степлер", "Рулетка", "Уровень", "Клей"};
+    private static final String[] WORDS = {"аккумуляторная", "ударная", "сетевая", "строительный", "торцевой",
+        "комплект", "насадки", "кейс", "щетки", "двигатель", "патрон", "быстрозажимной", "реверс", "подсветка",
+        "металл", "дерево", "бетон", "профессиональный", "компактный", "легкий"};
+    private static final String OWNER_EMAIL = "benchmark@email.com";
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000000"})
+    private int items;
+
+    @Param({"дрел", "ФОРАТ", "быстрозаж", "ключ 1", "щетки двиг", "нет такого"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private TrigramItemSearchEngine searchEngine;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--shareit.search.mode=trigram");
+        itemRepository = context.getBean(ItemRepository.class);
+        searchEngine = context.getBean(TrigramItemSearchEngine.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        int created = generateItems(jdbcTemplate);
+        if (created > 0 && "PostgreSQL".equals(database)) {
+            jdbcTemplate.execute("analyze items");
+        }
+        searchEngine.rebuild();
+
+        List<Long> expected = ids(like());
+        if (!ids(trigram()).equals(expected)) {
+            throw new IllegalStateException("Поиск по триграммам и like нашли разные предметы по запросу '"
+                    + query + "'");
+        }
+        System.out.println("База " + database + ", предметов " + items + ", создано " + created
+                + ", по запросу '" + query + "' найдено " + expected.size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> like() {
+        return itemRepository.search(query);
+    }
+
+    @Benchmark
+    public List<Item> trigram() {
+        return searchEngine.search(query);
+    }
+
+    /**
+     * Досоздает предметы владельца бенчмарка до items штук. Генератор с фиксированным зерном продолжает
+     * последовательность с уже созданного предмета, поэтому содержимое базы не зависит от числа запусков.
+     */
+    private int generateItems(JdbcTemplate jdbcTemplate) {
+        List<Long> ownerIds = jdbcTemplate.queryForList("select id from users where email = ?", Long.class,
+                OWNER_EMAIL);
+        if (ownerIds.isEmpty()) {
+            jdbcTemplate.update("insert into users (name, email) values ('benchmark', ?)", OWNER_EMAIL);
+            ownerIds = jdbcTemplate.queryForList("select id from users where email = ?", Long.class, OWNER_EMAIL);
+        }
+        long ownerId = ownerIds.get(0);
+        Integer existing = jdbcTemplate.queryForObject("select count(*) from items where owner_id = ?",
+                Integer.class, ownerId);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < items; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(100);
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)];
+            boolean available = random.nextInt(10) > 0;
+            if (i < existing) {
+                continue;
+            }
+            batch.add(new Object[]{name, description, available, ownerId});
+            if (batch.size() == BATCH_SIZE || i == items - 1) {
+                jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id) "
+                        + "values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return Math.max(0, items - existing);
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingMapperImpl;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.comment.CommentMapper;
+import ru.practicum.shareit.comment.CommentMapperImpl;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemMapperImpl;
+import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserMapperImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов GET /items и GET /bookings. ObjectMapper настроен так же, как в Spring Boot:
+ * даты пишутся строками ISO-8601.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+    private static final int COMMENTS_PER_ITEM = 5;
+
+    @Param({"1", "20", "100"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<ItemWithBookingDTO> items;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        UserMapper userMapper = new UserMapperImpl();
+        ItemMapper itemMapper = new ItemMapperImpl();
+        BookingMapper bookingMapper = new BookingMapperImpl(userMapper, itemMapper);
+        CommentMapper commentMapper = new CommentMapperImpl();
+        User owner = Fixtures.user(1);
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Item item = Fixtures.item(i, owner);
+            User booker = Fixtures.user(100 + i);
+            ItemWithBookingDTO itemDto = itemMapper.toDtoWithBooking(item);
+            itemDto.setLastBooking(bookingMapper.toShortDto(Fixtures.booking(2 * i, item, booker)));
+            itemDto.setNextBooking(bookingMapper.toShortDto(Fixtures.booking(2 * i + 1, item, booker)));
+            List<CommentDto> comments = new ArrayList<>();
+            for (int j = 0; j < COMMENTS_PER_ITEM; j++) {
+                comments.add(commentMapper.toDto(Fixtures.comment(j, item, booker)));
+            }
+            itemDto.setComments(comments);
+            items.add(itemDto);
+            bookings.add(bookingMapper.toDto(Fixtures.booking(i, item, booker)));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeItemsWithBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] writeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingMapperImpl;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentMapper;
+import ru.practicum.shareit.comment.CommentMapperImpl;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemMapperImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserMapperImpl;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования сущность -> DTO и обратно, которые выполняются на каждый запрос.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private final UserMapper userMapper = new UserMapperImpl();
+    private final ItemMapper itemMapper = new ItemMapperImpl();
+    private final BookingMapper bookingMapper = new BookingMapperImpl(userMapper, itemMapper);
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+
+    private User user;
+    private UserDto userDto;
+    private Item item;
+    private ItemDto itemDto;
+    private Booking booking;
+    private BookingDto bookingDto;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user(1);
+        userDto = userMapper.toDto(user);
+        item = Fixtures.item(1, user);
+        itemDto = itemMapper.toDto(item);
+        booking = Fixtures.booking(1, item, Fixtures.user(2));
+        bookingDto = bookingMapper.toDto(booking);
+        comment = Fixtures.comment(1, item, Fixtures.user(3));
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User userFromDto() {
+        return userMapper.toUser(userDto);
+    }
+
+    @Benchmark
+    public ItemDto itemToDto() {
+        return itemMapper.toDto(item);
+    }
+
+    @Benchmark
+    public Item itemFromDto() {
+        return itemMapper.toItem(itemDto);
+    }
+
+    @Benchmark
+    public ItemWithBookingDTO itemToDtoWithBooking() {
+        return itemMapper.toDtoWithBooking(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public Booking bookingFromDto() {
+        return bookingMapper.toBooking(bookingDto);
+    }
+
+    @Benchmark
+    public BookingShortDto bookingToShortDto() {
+        return bookingMapper.toShortDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto commentToDto() {
+        return commentMapper.toDto(comment);
+    }
+}
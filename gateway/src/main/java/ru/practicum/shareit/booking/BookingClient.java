@@ -1,16 +1,14 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,16 +16,11 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerClientFactory clientFactory) {
+        super(clientFactory, API_PREFIX);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Object getBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -36,27 +29,31 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(long userId, BookingDto bookingDto) {
+    public Object create(long userId, BookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> update(BookingDto bookingDto, long userId) {
+    public Object update(BookingDto bookingDto, long userId) {
         return patch("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> approve(Long bookingId, long userId, Boolean approve) {
+    public Object approve(Long bookingId, long userId, Boolean approve) {
         return patch("/" + bookingId + "?approved=" + approve.toString(), userId);
     }
 
-    public ResponseEntity<Object> deleteBooking(Long bookingId, long userId) {
+    public Object approveAll(BookingDecisionDto decision, long userId) {
+        return patch("/owner/approve", userId, decision);
+    }
+
+    public Object deleteBooking(Long bookingId, long userId) {
         return delete("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBooking(Long bookingId, long userId) {
+    public Object getBooking(Long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByUser(long userId, BookingState state, Integer from, Integer size) {
+    public Object getBookingsByUser(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -65,14 +62,18 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByUser(long userId, BookingState state) {
+    public Object getBookingsByUser(long userId, BookingState state) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name()
         );
         return get("?state={state}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, BookingState state, Integer from, Integer size) {
+    public Object getBookingsByUser(long userId, BookingState state, String cursor, Integer size) {
+        return getByCursor("?state={state}&cursor={cursor}", userId, state, cursor, size);
+    }
+
+    public Object getBookingsByOwner(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -81,11 +82,26 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, BookingState state) {
+    public Object getBookingsByOwner(long userId, BookingState state) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name()
         );
         return get("/owner?state={state}", userId, parameters);
     }
 
+    public Object getBookingsByOwner(long userId, BookingState state, String cursor, Integer size) {
+        return getByCursor("/owner?state={state}&cursor={cursor}", userId, state, cursor, size);
+    }
+
+    private Object getByCursor(String path, long userId, BookingState state, String cursor,
+                               Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("cursor", cursor);
+        if (size != null) {
+            parameters.put("size", size);
+            path += "&size={size}";
+        }
+        return get(path, userId, parameters);
+    }
 }
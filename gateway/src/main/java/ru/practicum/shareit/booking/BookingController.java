@@ -3,10 +3,10 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.ValidationException;
@@ -22,16 +22,23 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestBody @Valid BookingDto bookingDto) {
+    public Object create(@RequestHeader("X-Sharer-User-Id") long userId,
+                         @RequestBody @Valid BookingDto bookingDto) {
         log.info("Creating booking {}, userId={}", bookingDto, userId);
         return bookingClient.create(userId, bookingDto);
     }
 
+    @PatchMapping("/owner/approve")
+    public Object approveAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                             @RequestBody @Valid BookingDecisionDto decision) {
+        log.info("Deciding bookings {}, userId={}", decision, userId);
+        return bookingClient.approveAll(decision, userId);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestBody(required = false) BookingDto bookingDto, @PathVariable("id") long id,
-                                         @RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestParam(value = "approved", required = false) Optional<Boolean> approved) {
+    public Object update(@RequestBody(required = false) BookingDto bookingDto, @PathVariable("id") long id,
+                         @RequestHeader("X-Sharer-User-Id") long userId,
+                         @RequestParam(value = "approved", required = false) Optional<Boolean> approved) {
         if (approved.isPresent()) {
             return bookingClient.approve(id, userId, approved.get());
         } else {
@@ -42,22 +49,27 @@ public class BookingController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getBooking(@PathVariable(required = true) long id,
-                                             @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Object getBooking(@PathVariable(required = true) long id,
+                             @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Получен Get запроск эндпоинту: /bookings. Запрос элемента с ID = " + id);
         return bookingClient.getBooking(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                               @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                               @RequestParam(value = "from") Optional<Integer> from,
-                                               @RequestParam(value = "size") Optional<Integer> size) {
+    public Object getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId,
+                               @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                               @RequestParam(value = "from") Optional<Integer> from,
+                               @RequestParam(value = "size") Optional<Integer> size,
+                               @RequestParam(value = "cursor") Optional<String> cursor) {
         log.info("Получен Get запроск эндпоинту: /bookings");
         BookingState bookingState = BookingState.from(stateParam);
         if (bookingState == BookingState.UNSUPPORTED) {
             throw new ValidationException("{\"error\": \"Unknown state: UNSUPPORTED_STATUS\"}");
         }
+        if (cursor.isPresent()) {
+            checkCursorPageSize(size);
+            return bookingClient.getBookingsByUser(userId, bookingState, cursor.get(), size.orElse(null));
+        }
         if (from.isPresent() && size.isPresent()) {
             if (from.get() < 0 || size.get() < 0) {
                 throw new IllegalArgumentException("Ошибка в параметрах запроса");
@@ -69,15 +81,20 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                                @RequestParam(value = "from") Optional<Integer> from,
-                                                @RequestParam(value = "size") Optional<Integer> size) {
+    public Object getAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                @RequestParam(value = "from") Optional<Integer> from,
+                                @RequestParam(value = "size") Optional<Integer> size,
+                                @RequestParam(value = "cursor") Optional<String> cursor) {
         log.info("Получен Get запроск эндпоинту: /bookings/owner");
         BookingState bookingState = BookingState.from(stateParam);
         if (bookingState == BookingState.UNSUPPORTED) {
             throw new ValidationException("{\"error\": \"Unknown state: UNSUPPORTED_STATUS\"}");
         }
+        if (cursor.isPresent()) {
+            checkCursorPageSize(size);
+            return bookingClient.getBookingsByOwner(userId, bookingState, cursor.get(), size.orElse(null));
+        }
         if (from.isPresent() && size.isPresent()) {
             if (from.get() < 0 || size.get() < 0) {
                 throw new ValidationException("Ошибка в параметрах запроса");
@@ -89,9 +106,15 @@ public class BookingController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteBooking(@PathVariable(required = true) long id,
-                                                @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Object deleteBooking(@PathVariable(required = true) long id,
+                                @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Получен Delete запрос к эндпоинту: /bookings. Удаление booking:" + id);
         return bookingClient.deleteBooking(id, userId);
     }
+
+    private void checkCursorPageSize(Optional<Integer> size) {
+        if (size.isPresent() && size.get() <= 0) {
+            throw new ValidationException("Ошибка в параметрах запроса");
+        }
+    }
 }
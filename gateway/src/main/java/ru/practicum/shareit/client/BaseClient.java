@@ -1,86 +1,255 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final List<String> CONDITIONAL_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE);
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.CONNECTION, "Keep-Alive",
+            HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE, HttpHeaders.TRAILER,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE);
+
     protected final RestTemplate rest;
+    @Nullable
+    private final WebClient webClient;
+    private final boolean passthrough;
+    private final String apiPrefix;
+    private final List<String> coalescedPaths;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlightCalls =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, false, "", Collections.emptyList());
+    }
+
+    protected BaseClient(ServerClientFactory clientFactory, String apiPrefix) {
+        this(clientFactory.restTemplate(apiPrefix), clientFactory.webClient(apiPrefix), clientFactory.isPassthrough(),
+                apiPrefix, clientFactory.getCoalescedPaths());
+    }
+
+    /**
+     * @param webClient      если задан, запросы к серверу выполняются через него без блокировки потока
+     * @param passthrough    отдавать ответ сервера клиенту как есть, без разбора JSON в шлюзе
+     * @param coalescedPaths шаблоны путей шлюза, одинаковые GET-запросы к которым объединяются
+     */
+    private BaseClient(RestTemplate rest, @Nullable WebClient webClient, boolean passthrough, String apiPrefix,
+                       List<String> coalescedPaths) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+        this.apiPrefix = apiPrefix;
+        this.coalescedPaths = coalescedPaths;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Object get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Object get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Object get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Object post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Object post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Object post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Object put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Object put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Object patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Object patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Object patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Object patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Object delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Object delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Object delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * В блокирующем режиме запрос выполняется сразу, в потоке сервлета, и возвращается ResponseEntity.
+     * В реактивном режиме возвращается Mono с ResponseEntity, и Spring MVC освобождает поток сервлета
+     * до ответа сервера. Обработчик результата Spring MVC выбирается по классу значения, поэтому
+     * контроллеры объявляют тип Object, а асинхронная обработка запроса включается только в реактивном режиме.
+     */
+    private <T> Object makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        boolean coalesced = method == HttpMethod.GET && isCoalesced(path);
+        if (webClient != null) {
+            return coalesced
+                    ? coalesceExchange(path, headers, parameters)
+                    : exchange(method, path, parameters, body, headers);
+        }
+        return coalesced
+                ? coalesceSend(path, headers, parameters)
+                : send(method, path, headers, parameters, body);
+    }
+
+    private boolean isCoalesced(String path) {
+        int query = path.indexOf('?');
+        String gatewayPath = apiPrefix + (query < 0 ? path : path.substring(0, query));
+        for (String pattern : coalescedPaths) {
+            if (PATH_MATCHER.match(pattern, gatewayPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Одинаковые одновременные GET-запросы (путь, параметры, X-Sharer-User-Id и условные заголовки) получают
+     * ответ одного запроса к серверу. Запрос забывается сразу после ответа или ошибки, поэтому следующий GET снова
+     * уходит на сервер. Тело ответа собирается в массив байт, чтобы его можно было отдать нескольким клиентам.
+     */
+    private String coalescingKey(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        StringBuilder key = new StringBuilder(uri.toString()).append(' ').append(headers.getFirst(USER_HEADER));
+        for (String header : CONDITIONAL_HEADERS) {
+            key.append(' ').append(headers.getFirst(header));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Блокирующий вариант объединения: первый поток выполняет запрос, остальные ждут его результата.
+     */
+    private ResponseEntity<Object> coalesceSend(String path, HttpHeaders headers,
+                                                @Nullable Map<String, Object> parameters) {
+        String key = coalescingKey(path, headers, parameters);
+        CompletableFuture<ResponseEntity<Object>> request = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> sharedRequest = inFlightCalls.putIfAbsent(key, request);
+        if (sharedRequest != null) {
+            try {
+                return sharedRequest.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            ResponseEntity<Object> response = buffered(send(HttpMethod.GET, path, headers, parameters, null));
+            request.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightCalls.remove(key, request);
+        }
+    }
+
+    /**
+     * Реактивный вариант объединения. Если все ожидающие клиенты отменили запрос, он отменяется и забывается
+     * тоже. Запрос удаляется из карты только вместе со своим Mono: подписчик, опоздавший к уже забытому запросу,
+     * переподключает его, и завершение такого повторного запроса не должно убрать из карты более новый.
+     */
+    private Mono<ResponseEntity<Object>> coalesceExchange(String path, HttpHeaders headers,
+                                                          @Nullable Map<String, Object> parameters) {
+        return inFlight.computeIfAbsent(coalescingKey(path, headers, parameters), k -> {
+            AtomicReference<Mono<ResponseEntity<Object>>> shared = new AtomicReference<>();
+            shared.set(exchange(HttpMethod.GET, path, parameters, null, headers)
+                    .doFinally(signal -> inFlight.remove(k, shared.get()))
+                    .flux()
+                    .publish()
+                    .refCount()
+                    .singleOrEmpty());
+            return shared.get();
+        });
+    }
+
+    private static ResponseEntity<Object> buffered(ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof InputStreamResource)) {
+            return response;
+        }
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            return ResponseEntity.status(response.getStatusCodeValue())
+                    .headers(response.getHeaders())
+                    .body(body.readAllBytes());
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on reading response: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        if (passthrough) {
+            return passthrough(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -95,22 +264,132 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Отправляет запрос на сервер и возвращает тело ответа потоком: статус и заголовки сервера сохраняются,
+     * а байты копируются в ответ клиенту по мере чтения. Ответы с ошибкой передаются так же, без исключений.
+     * Соединение с сервером освобождается, когда поток тела закрывается после записи.
+     */
+    private <T> ResponseEntity<Object> passthrough(HttpMethod method, String path,
+                                                   @Nullable Map<String, Object> parameters,
+                                                   HttpEntity<T> requestEntity) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            response = request.execute();
+        } catch (IOException e) {
+            throw ioError(method, uri, e);
+        }
+
+        HttpHeaders headers = responseHeaders(response.getHeaders());
+        long contentLength = headers.getContentLength();
+        try {
+            int status = response.getRawStatusCode();
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
+            if (contentLength == 0 || status == HttpStatus.NOT_MODIFIED.value()) {
+                response.close();
+                return responseBuilder.build();
+            }
+            InputStream body = new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        response.close();
+                    }
+                }
+            };
+            return responseBuilder.body(new InputStreamResource(body));
+        } catch (IOException e) {
+            response.close();
+            throw ioError(method, uri, e);
+        }
+    }
+
+    /**
+     * Неблокирующий вариант passthrough: тело ответа сервера собирается в массив байт без разбора JSON,
+     * статус и заголовки сервера сохраняются.
+     */
+    private <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                      @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                      HttpHeaders headers) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .map(bytes -> gatewayResponse(response).body((Object) bytes))
+                        .defaultIfEmpty(gatewayResponse(response).build()));
+    }
+
+    private static ResponseEntity.BodyBuilder gatewayResponse(ClientResponse response) {
+        return ResponseEntity.status(response.rawStatusCode())
+                .headers(responseHeaders(response.headers().asHttpHeaders()));
+    }
+
+    /**
+     * Заголовки ответа сервера, которые передаются клиенту шлюза: все, кроме hop-by-hop заголовков соединения
+     * шлюза с сервером (RFC 7230, 6.1) и перечисленных в Connection.
+     */
+    private static HttpHeaders responseHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(serverHeaders);
+        serverHeaders.getConnection().forEach(headers::remove);
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        return headers;
+    }
+
+    private static ResourceAccessException ioError(HttpMethod method, URI uri, IOException e) {
+        return new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                + e.getMessage(), e);
+    }
+
+    /**
+     * Условные заголовки входящего запроса передаются серверу, чтобы он мог ответить 304 Not Modified.
+     */
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+            headers.set(USER_HEADER, String.valueOf(userId));
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+            for (String header : CONDITIONAL_HEADERS) {
+                Enumeration<String> values = request.getHeaders(header);
+                while (values.hasMoreElements()) {
+                    headers.add(header, values.nextElement());
+                }
+            }
         }
         return headers;
     }
 
+    /**
+     * Без passthrough шлюз разбирает тело ответа и сериализует его заново, поэтому байты ответа клиенту могут
+     * отличаться от байтов сервера: сильный ETag сервера передается слабым, а Content-Length не передается.
+     */
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            HttpHeaders headers = responseHeaders(response.getHeaders());
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            if (headers.getETag() != null) {
+                headers.setETag(weakETag(headers.getETag()));
+            }
+            return ResponseEntity.status(response.getStatusCode()).headers(headers).body(response.getBody());
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        String eTag = response.getHeaders().getETag();
+        if (eTag != null) {
+            responseBuilder.eTag(weakETag(eTag));
+        }
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -118,4 +397,8 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static String weakETag(String eTag) {
+        return eTag.startsWith("W/") ? eTag : "W/" + eTag;
+    }
 }
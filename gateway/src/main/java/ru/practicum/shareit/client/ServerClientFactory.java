@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.util.List;
+
+/**
+ * Создаёт HTTP-клиенты к серверу для наследников {@link BaseClient}.
+ * Режим shareit-server.client: blocking - RestTemplate, поток сервлета ждёт ответа сервера;
+ * reactive - WebClient на неблокирующем вводе-выводе, поток сервлета освобождается до ответа.
+ */
+@Component
+public class ServerClientFactory {
+    private final String serverUrl;
+    private final boolean passthrough;
+    private final boolean reactive;
+    private final List<String> coalescedPaths;
+    private final ClientHttpRequestFactory serverRequestFactory;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectProvider<ReactorClientHttpConnector> serverClientConnector;
+
+    public ServerClientFactory(@Value("${shareit-server.url}") String serverUrl,
+                               @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                               @Value("${shareit-server.client:blocking}") ServerClientMode mode,
+                               @Value("${shareit-server.coalesce.paths:}") List<String> coalescedPaths,
+                               ClientHttpRequestFactory serverRequestFactory,
+                               RestTemplateBuilder restTemplateBuilder,
+                               WebClient.Builder webClientBuilder,
+                               ObjectProvider<ReactorClientHttpConnector> serverClientConnector) {
+        this.serverUrl = serverUrl;
+        this.passthrough = passthrough;
+        this.reactive = mode == ServerClientMode.REACTIVE;
+        this.coalescedPaths = coalescedPaths;
+        this.serverRequestFactory = serverRequestFactory;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.webClientBuilder = webClientBuilder;
+        this.serverClientConnector = serverClientConnector;
+    }
+
+    public RestTemplate restTemplate(String apiPrefix) {
+        return restTemplateBuilder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .requestFactory(() -> serverRequestFactory)
+                .build();
+    }
+
+    /**
+     * Возвращает null в блокирующем режиме.
+     */
+    public WebClient webClient(String apiPrefix) {
+        if (!reactive) {
+            return null;
+        }
+        return webClientBuilder.clone()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .clientConnector(serverClientConnector.getObject())
+                .build();
+    }
+
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    /**
+     * Шаблоны путей шлюза (AntPathMatcher), одинаковые одновременные GET-запросы к которым объединяются.
+     */
+    public List<String> getCoalescedPaths() {
+        return coalescedPaths;
+    }
+}
@@ -1,17 +1,14 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -19,43 +16,46 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerClientFactory clientFactory) {
+        super(clientFactory, API_PREFIX);
     }
 
-    public ResponseEntity<Object> create(@Valid ItemDto itemDto, long userId) {
+    public Object create(@Valid ItemDto itemDto, long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> createComment(@Valid CommentDto commentDto, long itemId, long userId) {
+    public Object createComment(@Valid CommentDto commentDto, long itemId, long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> update(Long itemId, ItemDto itemDto, long userId) {
+    public Object update(Long itemId, ItemDto itemDto, long userId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItem(Long itemId, long userId) {
+    public Object getItem(Long itemId, long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId) {
+    public Object getAll(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItems(String query, long userId) {
+    public Object getItems(String query, long userId) {
         Map<String, Object> parameters = Map.of(
                 "text", query
         );
         return get("/search?text={text}", userId, parameters);
     }
 
-    public ResponseEntity<Object> deleteItem(Long itemId, long userId) {
+    public Object getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, long userId) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Object deleteItem(Long itemId, long userId) {
         return delete("/" + itemId, userId);
     }
 
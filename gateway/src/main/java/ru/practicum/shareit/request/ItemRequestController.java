@@ -2,7 +2,6 @@ package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -20,29 +19,29 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestBody @Valid ItemRequestDto requestDto,
-                                         @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Object create(@RequestBody @Valid ItemRequestDto requestDto,
+                         @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Получен Post запрос к эндпоинту: /requests");
         return itemRequestClient.create(requestDto, userId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getRequest(@PathVariable(required = true) long id,
-                                             @RequestHeader("X-Sharer-User-Id") long userId) {
+    public Object getRequest(@PathVariable(required = true) long id,
+                             @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Получен Get запроск эндпоинту: /requests. Запрос элемента с ID = " + id);
         return itemRequestClient.getRequest(id, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public Object getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Получен Get запроск эндпоинту: /requests");
         return itemRequestClient.getAllByUser(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestParam(value = "from") Optional<Integer> from,
-                                         @RequestParam(value = "size") Optional<Integer> size) {
+    public Object getAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                         @RequestParam(value = "from") Optional<Integer> from,
+                         @RequestParam(value = "size") Optional<Integer> size) {
         log.info("Получен Get запроск эндпоинту: /requests");
         if (from.isPresent() && size.isPresent()) {
             return itemRequestClient.getAll(userId, from.get(), size.get());
@@ -2,7 +2,6 @@ package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,32 +17,32 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public Object create(@Valid @RequestBody UserDto userDto) {
         log.info("Получен Post запрос к эндпоинту: /users");
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestBody UserDto userDto, @PathVariable("id") Long id) {
+    public Object update(@RequestBody UserDto userDto, @PathVariable("id") Long id) {
         log.info("Получен Patch запрос к эндпоинту: /users. Обновление пользователя:" + id);
         userDto.setId(id);
         return userClient.update(id, userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUser(@PathVariable(required = true) Long id) {
+    public Object getUser(@PathVariable(required = true) Long id) {
         log.info("Получен Get запроск эндпоинту: /users. Запрос элемента с ID = " + id);
         return userClient.getUser(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Object getAll() {
         log.info("Получен Get запроск эндпоинту: /users");
         return userClient.getAll();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@PathVariable(required = true) Integer id) {
+    public Object delete(@PathVariable(required = true) Integer id) {
         log.info("Получен Patch запрос к эндпоинту: /users. Удаление user:" + id);
         return userClient.deleteUser(id);
     }
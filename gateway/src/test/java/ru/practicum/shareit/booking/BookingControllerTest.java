@@ -0,0 +1,127 @@
+package ru.practicum.shareit.booking;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Шлюз поднимается целиком, вместо сервера - заглушка на случайном порту, которая запускается заново для каждого
+ * класса тестов: контекст наследника с другими настройками получает адрес своей заглушки. Заглушка запоминает
+ * условные заголовки последнего запроса и отвечает 304, если If-None-Match совпадает с её ETag.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingControllerTest {
+    private static final String NEXT_CURSOR = "eyJpZCI6NDJ9";
+    private static final String ETAG = "\"0a1b2c\"";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+    private static final byte[] BOOKINGS = "[{\"id\":42}]".getBytes(StandardCharsets.UTF_8);
+    private static final Map<String, String> CONDITIONAL_HEADERS = new ConcurrentHashMap<>();
+    private static HttpServer server;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings/owner", BookingControllerTest::respondWithPage);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void getAllByOwnerPassesServerHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        ResponseEntity<String> response = rest.exchange("/bookings/owner?cursor=start&size=1", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor"), equalTo(NEXT_CURSOR));
+        assertThat(response.getHeaders().getETag(), equalTo(expectedETag()));
+        assertThat(response.getBody(), equalTo(new String(BOOKINGS, StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void conditionalGetPassesNotModified() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        headers.setIfNoneMatch(expectedETag());
+        headers.set(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED);
+        ResponseEntity<String> response = rest.exchange("/bookings/owner?cursor=start&size=1", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        assertThat(CONDITIONAL_HEADERS.get(HttpHeaders.IF_NONE_MATCH), equalTo(expectedETag()));
+        assertThat(CONDITIONAL_HEADERS.get(HttpHeaders.IF_MODIFIED_SINCE), equalTo(LAST_MODIFIED));
+        assertThat(response.getStatusCode(), is(HttpStatus.NOT_MODIFIED));
+        assertThat(response.getHeaders().getETag(), equalTo(expectedETag()));
+        assertThat(response.getBody(), nullValue());
+    }
+
+    /**
+     * ETag, который шлюз отдает клиенту вместо ETag сервера.
+     */
+    protected String expectedETag() {
+        return ETAG;
+    }
+
+    private static void respondWithPage(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        CONDITIONAL_HEADERS.clear();
+        for (String header : new String[]{HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE}) {
+            String value = exchange.getRequestHeaders().getFirst(header);
+            if (value != null) {
+                CONDITIONAL_HEADERS.put(header, value);
+            }
+        }
+        exchange.getResponseHeaders().set("ETag", ETAG);
+        String ifNoneMatch = CONDITIONAL_HEADERS.get(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.replaceFirst("^W/", "").equals(ETAG)) {
+            exchange.sendResponseHeaders(HttpStatus.NOT_MODIFIED.value(), -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("X-Next-Cursor", NEXT_CURSOR);
+        exchange.sendResponseHeaders(200, BOOKINGS.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(BOOKINGS);
+        }
+    }
+}
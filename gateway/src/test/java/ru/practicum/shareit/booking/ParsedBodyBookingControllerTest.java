@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Те же проверки с shareit-server.passthrough=false: шлюз сериализует тело заново и отдает ETag сервера слабым.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.passthrough=false")
+class ParsedBodyBookingControllerTest extends BookingControllerTest {
+
+    @Override
+    protected String expectedETag() {
+        return "W/" + super.expectedETag();
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Те же проверки в режиме shareit-server.client=reactive.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.client=reactive")
+class ReactiveBookingControllerTest extends BookingControllerTest {
+}
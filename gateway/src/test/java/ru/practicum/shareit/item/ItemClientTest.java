@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Объединение одинаковых одновременных GET-запросов (shareit-server.coalesce.paths=/items/*).
+ * Заглушка сервера отвечает с задержкой, чтобы запросы успели встретиться, и считает полученные запросы.
+ * Заглушка и счетчики создаются заново для каждого класса тестов, в том числе для наследника с другим режимом.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ItemClientTest {
+    private static final long BROKEN_ITEM_ID = 500;
+    private static final long RESPONSE_DELAY_MILLIS = 300;
+    private static final int CLIENTS = 8;
+    private static final Map<String, AtomicInteger> REQUESTS = new ConcurrentHashMap<>();
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+
+    @Autowired
+    protected ItemClient itemClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        REQUESTS.clear();
+        serverExecutor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/items", ItemClientTest::respondLater);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void identicalGetsShareOneServerRequest() throws Exception {
+        List<ResponseEntity<Object>> responses = concurrently(CLIENTS, () -> itemClient.getItem(1L, 1));
+
+        assertThat(requests("/items/1", 1), is(1));
+        for (ResponseEntity<Object> response : responses) {
+            assertThat(response.getStatusCode(), is(HttpStatus.OK));
+            assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8),
+                    equalTo(body("/items/1")));
+        }
+
+        response(itemClient.getItem(1L, 1));
+        assertThat(requests("/items/1", 1), is(2));
+    }
+
+    @Test
+    void differentUsersAndParametersAreNotMerged() throws Exception {
+        List<Supplier<Object>> calls = Arrays.asList(
+                () -> itemClient.getItem(2L, 1),
+                () -> itemClient.getItem(2L, 2),
+                () -> itemClient.getItems("drill", 1),
+                () -> itemClient.getItems("saw", 1));
+        List<Supplier<Object>> twice = new ArrayList<>(calls);
+        twice.addAll(calls);
+
+        concurrently(twice);
+
+        assertThat(requests("/items/2", 1), is(1));
+        assertThat(requests("/items/2", 2), is(1));
+        assertThat(requests("/items/search?text=drill", 1), is(1));
+        assertThat(requests("/items/search?text=saw", 1), is(1));
+    }
+
+    @Test
+    void failedRequestIsNotReused() {
+        String path = "/items/" + BROKEN_ITEM_ID;
+        Assertions.assertThrows(connectionErrorType(), () -> response(itemClient.getItem(BROKEN_ITEM_ID, 1)));
+        int failedRequests = requests(path, 1);
+
+        Assertions.assertThrows(connectionErrorType(), () -> response(itemClient.getItem(BROKEN_ITEM_ID, 1)));
+        assertThat(requests(path, 1), greaterThan(failedRequests));
+    }
+
+    @Test
+    void clientReturnsResultOfItsMode() {
+        Object result = itemClient.getItem(4L, 1);
+
+        assertThat(result, instanceOf(resultType()));
+        assertThat(response(result).getStatusCode(), is(HttpStatus.OK));
+    }
+
+    /**
+     * В блокирующем режиме клиент выполняет запрос в вызывающем потоке и возвращает готовый ответ.
+     */
+    protected Class<?> resultType() {
+        return ResponseEntity.class;
+    }
+
+    /**
+     * Исключение клиента, когда сервер закрыл соединение, не ответив.
+     */
+    protected Class<? extends Exception> connectionErrorType() {
+        return ResourceAccessException.class;
+    }
+
+    private static List<ResponseEntity<Object>> concurrently(int clients, Supplier<Object> call) throws Exception {
+        List<Supplier<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            calls.add(call);
+        }
+        return concurrently(calls);
+    }
+
+    /**
+     * Запускает вызовы одновременно, каждый в своём потоке, как потоки сервлетов в блокирующем режиме.
+     */
+    private static List<ResponseEntity<Object>> concurrently(List<Supplier<Object>> calls) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(calls.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ResponseEntity<Object>>> futures = new ArrayList<>();
+            for (Supplier<Object> call : calls) {
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    return response(call.get());
+                }));
+            }
+            start.countDown();
+            List<ResponseEntity<Object>> responses = new ArrayList<>();
+            for (Future<ResponseEntity<Object>> future : futures) {
+                responses.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Ответ клиента: в блокирующем режиме готовый ResponseEntity, в реактивном - Mono, которого нужно дождаться.
+     */
+    @SuppressWarnings("unchecked")
+    protected static ResponseEntity<Object> response(Object result) {
+        if (result instanceof Mono) {
+            return ((Mono<ResponseEntity<Object>>) result).block();
+        }
+        return (ResponseEntity<Object>) result;
+    }
+
+    protected static int requests(String uri, long userId) {
+        AtomicInteger count = REQUESTS.get(uri + " " + userId);
+        return count != null ? count.get() : 0;
+    }
+
+    private static String body(String uri) {
+        return "{\"uri\":\"" + uri + "\"}";
+    }
+
+    private static void respondLater(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+        String uri = exchange.getRequestURI().toString();
+        REQUESTS.computeIfAbsent(uri + " " + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"),
+                key -> new AtomicInteger()).incrementAndGet();
+        if (uri.equals("/items/" + BROKEN_ITEM_ID)) {
+            exchange.close();
+            return;
+        }
+        try {
+            Thread.sleep(RESPONSE_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+            return;
+        }
+        byte[] response = body(uri).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(response);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Те же проверки в режиме shareit-server.client=reactive. Отменить запрос можно только в этом режиме:
+ * в блокирующем поток сервлета ждет ответа сервера до конца.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit-server.client=reactive")
+class ReactiveItemClientTest extends ItemClientTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cancelledRequestIsNotReused() throws Exception {
+        Disposable cancelled = ((Mono<ResponseEntity<Object>>) itemClient.getItem(3L, 1))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requests("/items/3", 1) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(requests("/items/3", 1), is(1));
+        cancelled.dispose();
+
+        response(itemClient.getItem(3L, 1));
+        assertThat(requests("/items/3", 1), is(2));
+    }
+
+    @Override
+    protected Class<?> resultType() {
+        return Mono.class;
+    }
+
+    @Override
+    protected Class<? extends Exception> connectionErrorType() {
+        return WebClientRequestException.class;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Сильный ETag для GET-ответов: MD5 от сериализованного тела. При совпадении If-None-Match сервер отвечает
+ * 304 без тела, но сам ответ всё равно строится, так что экономится трафик, а не запросы к базе.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/bookings/*", "/requests/*", "/users/*");
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Блокировки для нескольких экземпляров сервера: действие выполняется в транзакции, которая сначала берёт
+ * pg_advisory_xact_lock по id предмета. Блокировка снимается при завершении транзакции.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock", havingValue = "advisory")
+public class AdvisoryItemLocks implements ItemLocks {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public AdvisoryItemLocks(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public <T> T withItemLock(long itemId, Supplier<T> action) {
+        return withItemLocks(Collections.singletonList(itemId), action);
+    }
+
+    @Override
+    public <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            for (Long itemId : new TreeSet<>(itemIds)) {
+                jdbcTemplate.queryForList("select pg_advisory_xact_lock(?)", itemId);
+            }
+            return action.get();
+        });
+    }
+}
@@ -4,8 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ValidationException;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +19,9 @@ import java.util.Optional;
 @AllArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -24,6 +31,13 @@ public class BookingController {
         return bookingService.create(bookingDto, userId);
     }
 
+    @PatchMapping("/owner/approve")
+    public List<BookingDto> approveAll(@RequestBody BookingDecisionDto decision,
+                                       @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Получен Patch запрос к эндпоинту: /bookings/owner/approve. Бронирования:" + decision.getBookingIds());
+        return bookingService.approveAll(decision, userId);
+    }
+
     @PatchMapping("/{id}")
     public BookingDto update(@RequestBody(required = false) BookingDto bookingDto, @PathVariable("id") Integer id,
                              @RequestHeader("X-Sharer-User-Id") long userId,
@@ -45,42 +59,46 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllByUser(@RequestHeader("X-Sharer-User-Id") long userId,
-                                         @RequestParam(value = "state", required = false) Optional<String> state,
-                                         @RequestParam(value = "from") Optional<Integer> from,
-                                         @RequestParam(value = "size") Optional<Integer> size) {
+    public ResponseEntity<List<BookingDto>> getAllByUser(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(value = "state", required = false) Optional<String> state,
+            @RequestParam(value = "from") Optional<Integer> from,
+            @RequestParam(value = "size") Optional<Integer> size,
+            @RequestParam(value = "cursor") Optional<String> cursor) {
         log.info("Получен Get запроск эндпоинту: /bookings");
-        String bookingState;
-        if (state.isPresent()) {
-            bookingState = state.get();
-        } else {
-            bookingState = BookingState.ALL.toString();
+        String bookingState = state.orElse(BookingState.ALL.toString());
+        if (cursor.isPresent()) {
+            return toResponse(bookingService.getAllByUser(userId, bookingState, cursor.get(),
+                    getCursorPageSize(size)));
         }
         if (from.isPresent() && size.isPresent()) {
-            return bookingService.getAllByUser(userId, bookingState, PageRequest.of((from.get() + 1) % size.get(),
-                    size.get(), Sort.by("id").descending()));
+            checkPageParams(from.get(), size.get());
+            return ResponseEntity.ok(bookingService.getAllByUser(userId, bookingState,
+                    PageRequest.of((from.get() + 1) % size.get(), size.get(), Sort.by("id").descending())));
         } else {
-            return bookingService.getAllByUser(userId, bookingState);
+            return ResponseEntity.ok(bookingService.getAllByUser(userId, bookingState));
         }
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-                                          @RequestParam(value = "state", required = false) Optional<String> state,
-                                          @RequestParam(value = "from") Optional<Integer> from,
-                                          @RequestParam(value = "size") Optional<Integer> size) {
+    public ResponseEntity<List<BookingDto>> getAllByOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(value = "state", required = false) Optional<String> state,
+            @RequestParam(value = "from") Optional<Integer> from,
+            @RequestParam(value = "size") Optional<Integer> size,
+            @RequestParam(value = "cursor") Optional<String> cursor) {
         log.info("Получен Get запроск эндпоинту: /bookings/owner");
-        String bookingState;
-        if (state.isPresent()) {
-            bookingState = state.get();
-        } else {
-            bookingState = BookingState.ALL.toString();
+        String bookingState = state.orElse(BookingState.ALL.toString());
+        if (cursor.isPresent()) {
+            return toResponse(bookingService.getAllByOwner(userId, bookingState, cursor.get(),
+                    getCursorPageSize(size)));
         }
         if (from.isPresent() && size.isPresent()) {
-            return bookingService.getAllByOwner(userId, bookingState, PageRequest.of(from.get(), size.get(),
-                    Sort.by("id").descending()));
+            checkPageParams(from.get(), size.get());
+            return ResponseEntity.ok(bookingService.getAllByOwner(userId, bookingState,
+                    PageRequest.of(from.get(), size.get(), Sort.by("id").descending())));
         } else {
-            return bookingService.getAllByOwner(userId, bookingState);
+            return ResponseEntity.ok(bookingService.getAllByOwner(userId, bookingState));
         }
     }
 
@@ -91,4 +109,25 @@ public class BookingController {
         bookingService.delete(id, userId);
     }
 
+    private void checkPageParams(int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Ошибка в параметрах запроса");
+        }
+    }
+
+    private int getCursorPageSize(Optional<Integer> size) {
+        int pageSize = size.orElse(DEFAULT_CURSOR_PAGE_SIZE);
+        if (pageSize <= 0) {
+            throw new ValidationException("Ошибка в параметрах запроса");
+        }
+        return pageSize;
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingCursorPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext());
+        }
+        return response.body(page.getBookings());
+    }
 }
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор постраничной выдачи бронирований. Бронирования отдаются по убыванию id,
+ * курсор хранит id последнего отданного бронирования. Пустой курсор означает первую страницу.
+ */
+public final class BookingCursor {
+    public static final long FIRST_PAGE = Long.MAX_VALUE;
+
+    private BookingCursor() {
+    }
+
+    public static String encode(long bookingId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(bookingId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return FIRST_PAGE;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+}
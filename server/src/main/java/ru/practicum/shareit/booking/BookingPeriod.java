@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция бронирования с периодом, которого достаточно для проверки пересечений.
+ */
+public interface BookingPeriod {
+    long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -1,40 +1,110 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerEquals(User user);
+    @Query(" select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch i.owner " +
+            "join fetch b.booker " +
+            "where  b.id = ?1")
+    Optional<Booking> findWithItemAndBookerById(long id);
+
+    @Query(" select b from Booking b " +
+            "join fetch b.item i " +
+            "join fetch i.owner " +
+            "join fetch b.booker " +
+            "where  b.id in ?1 " +
+            "order by b.id")
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    /**
+     * Меняет статус, только если бронирование не менялось с момента чтения версии.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(" update Booking b " +
+            "set    b.status = ?2, b.version = b.version + 1 " +
+            "where  b.id = ?1 and b.version = ?3 and b.status <> ?2")
+    int updateStatus(long id, BookingStatus status, long version);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByBookerIdAndIdLessThanOrderByIdDesc(long bookerId, long bookingId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByBookerIdAndIdLessThanAndStatusInAndStartAfterOrderByIdDesc(
+            long bookerId, long bookingId, Collection<BookingStatus> statuses, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByBookerIdAndIdLessThanAndStatusOrderByIdDesc(
+            long bookerId, long bookingId, BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByBookerIdAndIdLessThanAndStatusAndStartBeforeAndEndAfterOrderByIdDesc(
+            long bookerId, long bookingId, BookingStatus status, LocalDateTime start, LocalDateTime end,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByBookerIdAndIdLessThanAndStatusAndStartBeforeAndEndBeforeOrderByIdDesc(
+            long bookerId, long bookingId, BookingStatus status, LocalDateTime start, LocalDateTime end,
+            Pageable pageable);
 
-    Page<Booking> findByBookerEquals(User user, Pageable pageable);
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByItemOwnerIdAndIdLessThanOrderByIdDesc(long ownerId, long bookingId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByItemOwnerIdAndIdLessThanAndStatusInAndStartAfterOrderByIdDesc(
+            long ownerId, long bookingId, Collection<BookingStatus> statuses, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByItemOwnerIdAndIdLessThanAndStatusOrderByIdDesc(
+            long ownerId, long bookingId, BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByItemOwnerIdAndIdLessThanAndStatusAndStartBeforeAndEndAfterOrderByIdDesc(
+            long ownerId, long bookingId, BookingStatus status, LocalDateTime start, LocalDateTime end,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findByItemOwnerIdAndIdLessThanAndStatusAndStartBeforeAndEndBeforeOrderByIdDesc(
+            long ownerId, long bookingId, BookingStatus status, LocalDateTime start, LocalDateTime end,
+            Pageable pageable);
 
     Booking findFirstByItemEqualsAndEndBeforeOrderByEndDesc(Item item, LocalDateTime endDateTime);
 
     Booking findFirstByItemEqualsAndStartAfterOrderByStartAsc(Item item, LocalDateTime startDateTime);
 
-    Optional<Booking> findFirstByItemEqualsAndAndBookerEqualsAndEndBefore(Item item, User user, LocalDateTime endDateTime);
+    Booking findFirstByItemEqualsAndEndAfterOrderByEndAsc(Item item, LocalDateTime endDateTime);
 
     @Query(" select b from Booking b " +
-            "where  b.item.owner.id = ?1")
-    List<Booking> findAllOwner(long userId);
+            "where  b.item.id in ?1 " +
+            "       and b.end < ?2 " +
+            "       and b.end = (select max(lb.end) from Booking lb " +
+            "                    where lb.item = b.item and lb.end < ?2)")
+    List<Booking> findLastByItemIds(Collection<Long> itemIds, LocalDateTime endDateTime);
 
     @Query(" select b from Booking b " +
-            "where  b.item.owner.id = ?1")
-    Page<Booking> findAllOwner(long userId, Pageable pageable);
+            "where  b.item.id in ?1 " +
+            "       and b.start > ?2 " +
+            "       and b.start = (select min(nb.start) from Booking nb " +
+            "                      where nb.item = b.item and nb.start > ?2)")
+    List<Booking> findNextByItemIds(Collection<Long> itemIds, LocalDateTime startDateTime);
 
-    @Query(" select b from Booking b " +
-            "where  (b.start > ?1 and " +
-            "       b.end < ?2)" +
-            "       or (b.end between ?1 and ?2" +
-            "       and b.start < ?1)")
-    List<Booking> findAllByDate(LocalDateTime startDate, LocalDateTime endDate);
+    Optional<Booking> findFirstByItemEqualsAndAndBookerEqualsAndEndBefore(Item item, User user, LocalDateTime endDateTime);
+
+    List<BookingPeriod> findByItemIdAndStatusIn(long itemId, Collection<BookingStatus> statuses);
+
+    List<BookingPeriod> findByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+            long itemId, Collection<BookingStatus> statuses, LocalDateTime end, LocalDateTime start);
 }
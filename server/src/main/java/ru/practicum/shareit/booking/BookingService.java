@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.List;
@@ -12,6 +14,8 @@ public interface BookingService {
 
     BookingDto approve(long bookingId, boolean isApprove, long userId);
 
+    List<BookingDto> approveAll(BookingDecisionDto decision, long userId);
+
     BookingDto getBooking(long id, long userId);
 
 
@@ -23,6 +27,10 @@ public interface BookingService {
 
     List<BookingDto> getAllByOwner(long userId, String state);
 
+    BookingCursorPage getAllByUser(long userId, String state, String cursor, int size);
+
+    BookingCursorPage getAllByOwner(long userId, String state, String cursor, int size);
+
     void delete(long bookingId, long userId);
 
 
@@ -3,13 +3,17 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDetailsCache;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.User;
@@ -18,19 +22,31 @@ import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String UNKNOWN_STATE_MESSAGE = "{\"error\": \"Unknown state: UNSUPPORTED_STATUS\"}";
+    private static final List<BookingStatus> FUTURE_STATUSES = Arrays.asList(BookingStatus.APPROVED,
+            BookingStatus.WAITING);
+    private static final List<BookingStatus> WAITING_STATUSES = Collections.singletonList(BookingStatus.WAITING);
+    private static final int MAX_DECISION_SIZE = 100;
+
     private final UserService userService;
     private final ItemService itemService;
     private final BookingRepository bookingRepository;
     private final BookingMapper bookingMapper;
     private final UserMapper userMapper;
     private final ItemMapper itemMapper;
+    private final BookingStore bookingStore;
+    private final ItemLocks itemLocks;
+    private final ItemDetailsCache itemDetailsCache;
 
     @Override
     public BookingDto create(BookingDto bookingDto, long userId) {
@@ -43,16 +59,24 @@ public class BookingServiceImpl implements BookingService {
         bookingDto.setItem(itemMapper.toDto(item));
         Booking booking = bookingMapper.toBooking(bookingDto);
         checkBooking(booking);
-        return bookingMapper.toDto(bookingRepository.save(booking));
+        BookingDto createdBooking = bookingMapper.toDto(itemLocks.withItemLock(item.getId(),
+                () -> bookingStore.save(booking)));
+        itemDetailsCache.evict(item.getId());
+        return createdBooking;
     }
 
     @Override
     public BookingDto update(BookingDto bookingDto, long userId) {
         Booking booking = bookingRepository.getReferenceById(bookingDto.getId());
         checkBookingAccess(booking, userId);
+        long previousItemId = booking.getItem().getId();
         bookingMapper.updateBookingFromDto(bookingDto, booking);
         checkBooking(booking);
-        return bookingMapper.toDto(bookingRepository.save(booking));
+        BookingDto updatedBooking = bookingMapper.toDto(itemLocks.withItemLock(booking.getItem().getId(),
+                () -> bookingStore.save(booking)));
+        itemDetailsCache.evict(previousItemId);
+        itemDetailsCache.evict(booking.getItem().getId());
+        return updatedBooking;
     }
 
     @Override
@@ -64,46 +88,60 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllByUser(long userId, String state) {
-        User user = userMapper.toUser(userService.getUser(userId));
-        log.info("Поиск запросов по пользователю: " + user.toString());
-        return listBookingToDto(filterBooking(bookingRepository.findByBookerEquals(user), getBookingState(state)));
+        return getAllByUser(userId, state, Pageable.unpaged());
     }
 
     @Override
     public List<BookingDto> getAllByUser(long userId, String state, Pageable pageable) {
         User user = userMapper.toUser(userService.getUser(userId));
         log.info("Поиск запросов по пользователю: " + user.toString());
-        return listBookingToDto(pageBookingToList(bookingRepository.findByBookerEquals(user, pageable)));
+        return listBookingToDto(findBookerBookings(userId, getBookingState(state), BookingCursor.FIRST_PAGE,
+                pageable));
     }
 
     @Override
     public List<BookingDto> getAllByOwner(long userId, String state) {
+        return getAllByOwner(userId, state, Pageable.unpaged());
+    }
+
+    @Override
+    public List<BookingDto> getAllByOwner(long userId, String state, Pageable pageable) {
         User user = userMapper.toUser(userService.getUser(userId));
         log.info("Поиск запросов по пользователю: " + user.toString());
-        return listBookingToDto(filterBooking(bookingRepository.findAllOwner(userId), getBookingState(state)));
+        return listBookingToDto(findOwnerBookings(userId, getBookingState(state), BookingCursor.FIRST_PAGE,
+                pageable));
     }
 
     @Override
-    public List<BookingDto> getAllByOwner(long userId, String state, Pageable pageable) {
+    public BookingCursorPage getAllByUser(long userId, String state, String cursor, int size) {
         User user = userMapper.toUser(userService.getUser(userId));
         log.info("Поиск запросов по пользователю: " + user.toString());
-        return listBookingToDto(filterBooking(pageBookingToList(bookingRepository.findAllOwner(userId, pageable)),
-                getBookingState(state)));
+        return toCursorPage(findBookerBookings(userId, getBookingState(state), BookingCursor.decode(cursor),
+                PageRequest.ofSize(size)), size);
+    }
+
+    @Override
+    public BookingCursorPage getAllByOwner(long userId, String state, String cursor, int size) {
+        User user = userMapper.toUser(userService.getUser(userId));
+        log.info("Поиск запросов по пользователю: " + user.toString());
+        return toCursorPage(findOwnerBookings(userId, getBookingState(state), BookingCursor.decode(cursor),
+                PageRequest.ofSize(size)), size);
     }
 
     @Override
     public void delete(long bookingId, long userId) {
         Booking booking = bookingRepository.getReferenceById(bookingId);
         checkBookingAccess(booking, userId);
-        bookingRepository.delete(booking);
+        bookingStore.delete(booking);
+        itemDetailsCache.evict(booking.getItem().getId());
     }
 
-    private List<Booking> pageBookingToList(Page<Booking> pageBooking) {
-        List<Booking> bookingList = new ArrayList<>();
-        if (pageBooking != null && pageBooking.hasContent()) {
-            bookingList = pageBooking.getContent();
+    private BookingCursorPage toCursorPage(List<Booking> listBooking, int size) {
+        String next = null;
+        if (listBooking.size() == size) {
+            next = BookingCursor.encode(listBooking.get(listBooking.size() - 1).getId());
         }
-        return bookingList;
+        return new BookingCursorPage(listBookingToDto(listBooking), next);
     }
 
     private void checkBooking(Booking booking) {
@@ -113,10 +151,6 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStart().isAfter(booking.getEnd())) {
             throw new ValidationException("Ошибка в датах бронирования");
         }
-        if (!bookingRepository.findAllByDate(booking.getStart(), booking.getEnd()).isEmpty()) {
-            throw new ValidationException("Ошибка в датах бронирования. " +
-                    "Start = " + booking.getStart().toString() + " End = " + booking.getEnd().toString());
-        }
     }
 
     public void checkBookingAccess(Booking booking, long userId) {
@@ -128,25 +162,59 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public BookingDto approve(long bookingId, boolean isApprove, long userId) {
-        Booking booking = bookingRepository.getReferenceById(bookingId);
-        User owner = booking.getItem().getOwner();
-        itemService.checkItemOwner(booking.getItem().getId(), userId);
-        if (isApprove) {
-            if (booking.getStatus() != BookingStatus.APPROVED) {
-                booking.setStatus(BookingStatus.APPROVED);
-            } else {
-                throw new ValidationException("Бронирование уже подтверждено");
-            }
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование с ID=" + bookingId + " не найдено"));
+        if (booking.getItem().getOwner().getId() != userId) {
+            throw new NotFoundException("Пользователь с ID=" + userId + " не является владельцем");
+        }
+        BookingStatus status = isApprove ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (booking.getStatus() == status) {
+            throw new ValidationException(isApprove ? "Бронирование уже подтверждено" : "Бронирование уже отклонено");
+        }
+        BookingDto approvedBooking = bookingMapper.toDto(itemLocks.withItemLock(booking.getItem().getId(),
+                () -> bookingStore.updateStatus(booking, status)));
+        itemDetailsCache.evict(booking.getItem().getId());
+        return approvedBooking;
+    }
 
-        } else {
-            if (booking.getStatus() != BookingStatus.REJECTED) {
-                booking.setStatus(BookingStatus.REJECTED);
-            } else {
-                throw new ValidationException("Бронирование уже отклонено");
+    @Override
+    @Transactional
+    public List<BookingDto> approveAll(BookingDecisionDto decision, long userId) {
+        checkDecision(decision);
+        Set<Long> bookingIds = new TreeSet<>(decision.getBookingIds());
+        List<Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds);
+        if (bookings.size() != bookingIds.size()) {
+            throw new NotFoundException("Бронирования с ID=" + bookingIds + " не найдены");
+        }
+        BookingStatus status = decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<Long> reactivatedItemIds = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (booking.getItem().getOwner().getId() != userId) {
+                throw new NotFoundException("Пользователь с ID=" + userId + " не является владельцем");
+            }
+            if (booking.getStatus() == status) {
+                throw new ValidationException("Бронирование с ID=" + booking.getId() + " уже "
+                        + (decision.getApproved() ? "подтверждено" : "отклонено"));
+            }
+            if (status == BookingStatus.APPROVED && booking.getStatus() == BookingStatus.REJECTED) {
+                reactivatedItemIds.add(booking.getItem().getId());
             }
         }
-        return update(bookingMapper.toDto(booking), userId);
+        List<BookingDto> decidedBookings = listBookingToDto(itemLocks.withItemLocks(reactivatedItemIds,
+                () -> bookingStore.updateStatuses(bookings, status)));
+        bookings.forEach(booking -> itemDetailsCache.evict(booking.getItem().getId()));
+        return decidedBookings;
+    }
 
+    /**
+     * Те же ограничения, что и у BookingDecisionDto в шлюзе, на случай запроса к серверу в обход шлюза.
+     */
+    private void checkDecision(BookingDecisionDto decision) {
+        List<Long> bookingIds = decision.getBookingIds();
+        if (decision.getApproved() == null || bookingIds == null || bookingIds.isEmpty()
+                || bookingIds.size() > MAX_DECISION_SIZE || bookingIds.contains(null)) {
+            throw new ValidationException("Ошибка в параметрах запроса");
+        }
     }
 
     private List<BookingDto> listBookingToDto(List<Booking> listBooking) {
@@ -157,55 +225,54 @@ public class BookingServiceImpl implements BookingService {
         return listBookingDto;
     }
 
-    private List<Booking> filterBooking(List<Booking> listBooking, BookingState state) {
-        List<Booking> listBookingResult;
+    private List<Booking> findBookerBookings(long userId, BookingState state, long beforeId, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
         switch (state) {
+            case ALL:
+                return bookingRepository.findByBookerIdAndIdLessThanOrderByIdDesc(userId, beforeId, pageable);
             case FUTURE:
-                listBookingResult = listBooking.stream()
-                        .filter(booking -> ((booking.getStatus() == BookingStatus.APPROVED)
-                                || (booking.getStatus() == BookingStatus.WAITING))
-                                && (booking.getStart().isAfter(LocalDateTime.now())))
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findByBookerIdAndIdLessThanAndStatusInAndStartAfterOrderByIdDesc(userId,
+                        beforeId, FUTURE_STATUSES, now, pageable);
             case WAITING:
-                listBookingResult = listBooking.stream()
-                        .filter(booking -> ((booking.getStatus() == BookingStatus.WAITING)
-                                && (booking.getStart().isAfter(LocalDateTime.now()))))
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findByBookerIdAndIdLessThanAndStatusInAndStartAfterOrderByIdDesc(userId,
+                        beforeId, WAITING_STATUSES, now, pageable);
             case REJECTED:
-                listBookingResult = listBooking.stream()
-                        .filter(booking -> (booking.getStatus() == BookingStatus.REJECTED))
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findByBookerIdAndIdLessThanAndStatusOrderByIdDesc(userId, beforeId,
+                        BookingStatus.REJECTED, pageable);
             case CURRENT:
-                listBookingResult = listBooking.stream()
-                        .filter(booking -> ((booking.getStatus() == BookingStatus.REJECTED)
-                                && (booking.getStart().isBefore(LocalDateTime.now()))
-                                && (booking.getEnd().isAfter(LocalDateTime.now()))))
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findByBookerIdAndIdLessThanAndStatusAndStartBeforeAndEndAfterOrderByIdDesc(
+                        userId, beforeId, BookingStatus.REJECTED, now, now, pageable);
             case PAST:
-                listBookingResult = listBooking.stream()
-                        .filter(booking -> ((booking.getStatus() == BookingStatus.APPROVED)
-                                && (booking.getStart().isBefore(LocalDateTime.now()))
-                                && (booking.getEnd().isBefore(LocalDateTime.now()))))
-                        .collect(Collectors.toList());
-                break;
+                return bookingRepository.findByBookerIdAndIdLessThanAndStatusAndStartBeforeAndEndBeforeOrderByIdDesc(
+                        userId, beforeId, BookingStatus.APPROVED, now, now, pageable);
             default:
-                listBookingResult = listBooking;
-                break;
+                throw new ValidationException(UNKNOWN_STATE_MESSAGE);
         }
-        return sortListBooking(listBookingResult);
     }
 
-    private List<Booking> sortListBooking(List<Booking> listBooking) {
-        return listBooking.stream().sorted((booking0, booking1) -> {
-            Long id0 = booking0.getId();
-            Long id1 = booking1.getId();
-            int comp = id1.compareTo(id0);
-            return comp;
-        }).collect(Collectors.toList());
+    private List<Booking> findOwnerBookings(long userId, BookingState state, long beforeId, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case ALL:
+                return bookingRepository.findByItemOwnerIdAndIdLessThanOrderByIdDesc(userId, beforeId, pageable);
+            case FUTURE:
+                return bookingRepository.findByItemOwnerIdAndIdLessThanAndStatusInAndStartAfterOrderByIdDesc(userId,
+                        beforeId, FUTURE_STATUSES, now, pageable);
+            case WAITING:
+                return bookingRepository.findByItemOwnerIdAndIdLessThanAndStatusInAndStartAfterOrderByIdDesc(userId,
+                        beforeId, WAITING_STATUSES, now, pageable);
+            case REJECTED:
+                return bookingRepository.findByItemOwnerIdAndIdLessThanAndStatusOrderByIdDesc(userId, beforeId,
+                        BookingStatus.REJECTED, pageable);
+            case CURRENT:
+                return bookingRepository.findByItemOwnerIdAndIdLessThanAndStatusAndStartBeforeAndEndAfterOrderByIdDesc(
+                        userId, beforeId, BookingStatus.REJECTED, now, now, pageable);
+            case PAST:
+                return bookingRepository.findByItemOwnerIdAndIdLessThanAndStatusAndStartBeforeAndEndBeforeOrderByIdDesc(
+                        userId, beforeId, BookingStatus.APPROVED, now, now, pageable);
+            default:
+                throw new ValidationException(UNKNOWN_STATE_MESSAGE);
+        }
     }
 
     private BookingState getBookingState(String state) {
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сохранение бронирований с защитой от пересечения периодов бронирований одного предмета.
+ */
+public interface BookingStore {
+    /**
+     * Сохраняет бронирование. Если период пересекается с подтверждённым или ожидающим бронированием того же
+     * предмета, выбрасывает ValidationException.
+     */
+    Booking save(Booking booking);
+
+    void delete(Booking booking);
+
+    /**
+     * Меняет статус бронирования одним условным UPDATE по прочитанной версии. Если бронирование успели
+     * изменить, выбрасывает ConflictException. Возвращает бронирование с новым статусом и версией.
+     */
+    Booking updateStatus(Booking booking, BookingStatus status);
+
+    /**
+     * Меняет статус нескольких бронирований, прочитанных в текущей транзакции, одним пакетом UPDATE с проверкой
+     * версий. Если какое-либо бронирование успели изменить, выбрасывает ConflictException.
+     */
+    List<Booking> updateStatuses(List<Booking> bookings, BookingStatus status);
+
+    /**
+     * Подтверждённые и ожидающие бронирования предмета, пересекающие период [start, end), в порядке начала.
+     */
+    List<BookingPeriod> findPeriods(long itemId, LocalDateTime start, LocalDateTime end);
+
+    static ConflictException conflictException(Booking booking) {
+        return new ConflictException("Бронирование с ID=" + booking.getId() + " было изменено другим запросом");
+    }
+
+    static ValidationException overlapException(Booking booking) {
+        return new ValidationException("Ошибка в датах бронирования. " +
+                "Start = " + booking.getStart().toString() + " End = " + booking.getEnd().toString());
+    }
+}
@@ -0,0 +1,220 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Периоды подтверждённых и ожидающих бронирований по каждому предмету. Периоды предмета загружаются из базы
+ * при первом обращении и хранятся упорядоченными по началу. Активные периоды одного предмета не пересекаются,
+ * поэтому проверка пересечения просматривает только последний период, начавшийся до проверяемого,
+ * и периоды, начинающиеся внутри него.
+ * Внутри транзакции ответы берутся из базы, чтобы учитывать её незафиксированные изменения. Изменения
+ * применяются перед фиксацией транзакции, пока её блокировки ещё удерживаются, при откате данные предмета
+ * сбрасываются.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingTimeline {
+    static final Collection<BookingStatus> ACTIVE_STATUSES = Arrays.asList(BookingStatus.APPROVED,
+            BookingStatus.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, Long> itemIdsByBookingId = new ConcurrentHashMap<>();
+
+    /**
+     * Проверяет, пересекается ли период [start, end) с другим подтверждённым или ожидающим бронированием предмета.
+     */
+    public boolean hasOverlap(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findInDatabase(itemId, start, end).stream().anyMatch(period -> period.getId() != bookingId);
+        }
+        return getTimeline(itemId).hasOverlap(bookingId, start, end);
+    }
+
+    /**
+     * Возвращает подтверждённые и ожидающие бронирования предмета, пересекающие период [start, end),
+     * в порядке начала.
+     */
+    public List<BookingPeriod> findPeriods(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findInDatabase(itemId, start, end);
+        }
+        return getTimeline(itemId).findPeriods(start, end);
+    }
+
+    private List<BookingPeriod> findInDatabase(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.findByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(itemId,
+                ACTIVE_STATUSES, end, start);
+    }
+
+    /**
+     * Добавляет, переносит или убирает бронирование в зависимости от его статуса и предмета.
+     */
+    public void put(Booking booking) {
+        long bookingId = booking.getId();
+        long itemId = booking.getItem().getId();
+        Long previousItemId = itemIdsByBookingId.get(bookingId);
+        if (previousItemId != null && previousItemId != itemId) {
+            remove(previousItemId, bookingId);
+        }
+        if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+            Period period = new Period(bookingId, booking.getStart(), booking.getEnd());
+            applyOnCommit(itemId, timeline -> {
+                timeline.put(period);
+                itemIdsByBookingId.put(bookingId, itemId);
+            });
+        } else {
+            remove(itemId, bookingId);
+        }
+    }
+
+    public void remove(long itemId, long bookingId) {
+        applyOnCommit(itemId, timeline -> {
+            timeline.remove(bookingId);
+            itemIdsByBookingId.remove(bookingId, itemId);
+        });
+    }
+
+    private void applyOnCommit(long itemId, TimelineUpdate update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(itemId, update);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    evict(itemId);
+                }
+            }
+        });
+    }
+
+    private void apply(long itemId, TimelineUpdate update) {
+        timelines.computeIfPresent(itemId, (id, timeline) -> {
+            update.apply(timeline);
+            return timeline;
+        });
+    }
+
+    private ItemTimeline getTimeline(long itemId) {
+        return timelines.computeIfAbsent(itemId, this::load);
+    }
+
+    private void evict(long itemId) {
+        timelines.remove(itemId);
+        itemIdsByBookingId.values().removeIf(id -> id == itemId);
+    }
+
+    private ItemTimeline load(long itemId) {
+        ItemTimeline timeline = new ItemTimeline();
+        for (BookingPeriod period : bookingRepository.findByItemIdAndStatusIn(itemId, ACTIVE_STATUSES)) {
+            timeline.put(new Period(period.getId(), period.getStart(), period.getEnd()));
+            itemIdsByBookingId.put(period.getId(), itemId);
+        }
+        return timeline;
+    }
+
+    private interface TimelineUpdate {
+        void apply(ItemTimeline timeline);
+    }
+
+    private static final class Period implements BookingPeriod {
+        private final long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Period(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        @Override
+        public LocalDateTime getEnd() {
+            return end;
+        }
+    }
+
+    private static final class ItemTimeline {
+        private static final Comparator<Period> ORDER = Comparator.comparing((Period period) -> period.start)
+                .thenComparingLong(period -> period.id);
+
+        private final NavigableSet<Period> periods = new TreeSet<>(ORDER);
+        private final Map<Long, Period> periodsById = new HashMap<>();
+
+        synchronized boolean hasOverlap(long bookingId, LocalDateTime start, LocalDateTime end) {
+            for (Period period : candidates(start, end)) {
+                if (period.id != bookingId && period.end.isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized List<BookingPeriod> findPeriods(LocalDateTime start, LocalDateTime end) {
+            List<BookingPeriod> result = new ArrayList<>();
+            for (Period period : candidates(start, end)) {
+                if (period.end.isAfter(start)) {
+                    result.add(period);
+                }
+            }
+            return result;
+        }
+
+        private List<Period> candidates(LocalDateTime start, LocalDateTime end) {
+            Period from = new Period(Long.MIN_VALUE, start, null);
+            Period to = new Period(Long.MIN_VALUE, end, null);
+            List<Period> candidates = new ArrayList<>();
+            Period previous = periods.lower(from);
+            if (previous != null) {
+                candidates.add(previous);
+            }
+            candidates.addAll(periods.subSet(from, true, to, false));
+            return candidates;
+        }
+
+        synchronized void put(Period period) {
+            remove(period.id);
+            periods.add(period);
+            periodsById.put(period.id, period);
+        }
+
+        synchronized void remove(long bookingId) {
+            Period period = periodsById.remove(bookingId);
+            if (period != null) {
+                periods.remove(period);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Полагается на ограничение исключения BOOKINGS_NO_OVERLAP (миграция postgresql/V2): бронирование сразу
+ * записывается в базу, нарушение ограничения превращается в ValidationException.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.overlap-check", havingValue = "constraint")
+public class ConstraintBookingStore implements BookingStore {
+    static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public Booking save(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw BookingStore.overlapException(booking);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public Booking updateStatus(Booking booking, BookingStatus status) {
+        int updated;
+        try {
+            updated = bookingRepository.updateStatus(booking.getId(), status, booking.getVersion());
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw BookingStore.overlapException(booking);
+            }
+            throw e;
+        }
+        if (updated == 0) {
+            throw BookingStore.conflictException(booking);
+        }
+        booking.setStatus(status);
+        booking.setVersion(booking.getVersion() + 1);
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public List<Booking> updateStatuses(List<Booking> bookings, BookingStatus status) {
+        bookings.forEach(booking -> booking.setStatus(status));
+        try {
+            return bookingRepository.saveAllAndFlush(bookings);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Бронирования были изменены другим запросом");
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ValidationException("Ошибка в датах бронирования: бронирования пересекаются");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Booking booking) {
+        bookingRepository.delete(booking);
+    }
+
+    @Override
+    public List<BookingPeriod> findPeriods(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.findByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(itemId,
+                BookingTimeline.ACTIVE_STATUSES, end, start);
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        if (cause instanceof SQLException && !EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+            return false;
+        }
+        return cause.getMessage() != null && cause.getMessage().contains(OVERLAP_CONSTRAINT);
+    }
+}
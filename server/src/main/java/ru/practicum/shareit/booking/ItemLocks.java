@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Блокировка по id предмета вокруг проверки пересечений и сохранения бронирования.
+ * Если вызов идёт внутри транзакции, блокировка удерживается до её завершения.
+ */
+public interface ItemLocks {
+    <T> T withItemLock(long itemId, Supplier<T> action);
+
+    /**
+     * Блокирует сразу несколько предметов. Блокировки берутся в одном и том же порядке, чтобы одновременные
+     * вызовы с пересекающимися наборами не ждали друг друга бесконечно.
+     */
+    <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> action);
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Блокировки внутри одного процесса: предметы распределяются по фиксированному набору замков,
+ * бронирования разных предметов почти никогда не ждут друг друга.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.booking.lock", havingValue = "striped", matchIfMissing = true)
+public class StripedItemLocks implements ItemLocks {
+    private final Lock[] stripes;
+
+    public StripedItemLocks(@Value("${shareit.booking.lock-stripes:64}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public <T> T withItemLock(long itemId, Supplier<T> action) {
+        return withStripes(Collections.singletonList(stripe(itemId)), action);
+    }
+
+    @Override
+    public <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> action) {
+        TreeSet<Integer> indexes = itemIds.stream()
+                .map(this::stripe)
+                .collect(Collectors.toCollection(TreeSet::new));
+        return withStripes(indexes, action);
+    }
+
+    int stripe(long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+
+    private <T> T withStripes(Collection<Integer> indexes, Supplier<T> action) {
+        List<Lock> locks = indexes.stream().map(index -> stripes[index]).collect(Collectors.toList());
+        locks.forEach(Lock::lock);
+        boolean holdUntilCompletion = false;
+        try {
+            T result = action.get();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        unlock(locks);
+                    }
+                });
+                holdUntilCompletion = true;
+            }
+            return result;
+        } finally {
+            if (!holdUntilCompletion) {
+                unlock(locks);
+            }
+        }
+    }
+
+    private static void unlock(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Проверяет пересечения по {@link BookingTimeline} перед сохранением.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.overlap-check", havingValue = "timeline", matchIfMissing = true)
+public class TimelineBookingStore implements BookingStore {
+    private final BookingRepository bookingRepository;
+    private final BookingTimeline bookingTimeline;
+
+    @Override
+    public Booking save(Booking booking) {
+        if (BookingTimeline.ACTIVE_STATUSES.contains(booking.getStatus()) && bookingTimeline.hasOverlap(
+                booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd())) {
+            throw BookingStore.overlapException(booking);
+        }
+        Booking saved = bookingRepository.save(booking);
+        bookingTimeline.put(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Booking updateStatus(Booking booking, BookingStatus status) {
+        checkActivation(booking, status);
+        if (bookingRepository.updateStatus(booking.getId(), status, booking.getVersion()) == 0) {
+            throw BookingStore.conflictException(booking);
+        }
+        booking.setStatus(status);
+        booking.setVersion(booking.getVersion() + 1);
+        bookingTimeline.put(booking);
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public List<Booking> updateStatuses(List<Booking> bookings, BookingStatus status) {
+        for (Booking booking : bookings) {
+            checkActivation(booking, status);
+            booking.setStatus(status);
+        }
+        List<Booking> saved;
+        try {
+            saved = bookingRepository.saveAllAndFlush(bookings);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Бронирования были изменены другим запросом");
+        }
+        saved.forEach(bookingTimeline::put);
+        return saved;
+    }
+
+    @Override
+    public void delete(Booking booking) {
+        bookingRepository.delete(booking);
+        bookingTimeline.remove(booking.getItem().getId(), booking.getId());
+    }
+
+    @Override
+    public List<BookingPeriod> findPeriods(long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingTimeline.findPeriods(itemId, start, end);
+    }
+
+    private void checkActivation(Booking booking, BookingStatus status) {
+        boolean activated = !BookingTimeline.ACTIVE_STATUSES.contains(booking.getStatus())
+                && BookingTimeline.ACTIVE_STATUSES.contains(status);
+        if (activated && bookingTimeline.hasOverlap(booking.getItem().getId(), booking.getId(), booking.getStart(),
+                booking.getEnd())) {
+            throw BookingStore.overlapException(booking);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.comment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.item.Item;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemEquals(Item item);
+    @Query(" select c from Comment c " +
+            "join fetch c.author " +
+            "where  c.item.id in ?1 " +
+            "order by c.created")
+    List<Comment> findAllWithAuthorByItemIds(Collection<Long> itemIds);
 }
@@ -29,6 +29,12 @@ public class ErrorHandler {
         return e.getMessage();
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String handleConflictException(final ConflictException e) {
+        return e.getMessage();
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public String handleConstraintViolationException(final ConstraintViolationException e) {
@@ -2,11 +2,14 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -59,6 +62,19 @@ public class ItemController {
         return itemService.search(query, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<AvailabilitySlotDto> getAvailability(@PathVariable(required = true) long id,
+                                                     @RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @RequestParam("from")
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime from,
+                                                     @RequestParam("to")
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime to) {
+        log.info("Получен Get запроск эндпоинту: /items/{}/availability", id);
+        return itemService.getAvailability(id, from, to);
+    }
+
     @DeleteMapping("/{id}")
     public void delete(@PathVariable(required = true) Integer id,
                        @RequestHeader("X-Sharer-User-Id") long userId) {
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш собранных ответов GET /items/{id}. Для каждого предмета хранится два варианта: для владельца
+ * (с последним и следующим бронированием) и для остальных пользователей.
+ * Каждый вызов get получает свою копию, поэтому вызывающий код может её изменять.
+ */
+@Component
+public class ItemDetailsCache {
+    private final Cache<Key, ItemDetails> items;
+
+    public ItemDetailsCache(@Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.item-cache.ttl:10m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        items = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Key, ItemDetails>() {
+                    @Override
+                    public long expireAfterCreate(Key key, ItemDetails details, long currentTime) {
+                        if (details.getValidUntil() == null) {
+                            return ttl.toNanos();
+                        }
+                        Duration untilChange = Duration.between(LocalDateTime.now(), details.getValidUntil());
+                        return Math.max(0, Math.min(ttl.toNanos(), untilChange.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, ItemDetails details, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, details, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, ItemDetails details, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "items");
+    }
+
+    /**
+     * Возвращает копию ответа из кэша, при промахе собирает его через loader.
+     */
+    public ItemWithBookingDTO get(long itemId, boolean ownerView, Supplier<ItemDetails> loader) {
+        return copy(items.get(new Key(itemId, ownerView), key -> loader.get()).getItem());
+    }
+
+    /**
+     * Сбрасывает оба варианта предмета сразу и ещё раз после завершения текущей транзакции.
+     */
+    public void evict(long itemId) {
+        evictNow(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(itemId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает весь кэш, например после изменения пользователя: его имя есть в ответах
+     * как у владельца и как у автора комментариев.
+     */
+    public void evictAll() {
+        items.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    items.invalidateAll();
+                }
+            });
+        }
+    }
+
+    private static ItemWithBookingDTO copy(ItemWithBookingDTO item) {
+        UserDto owner = item.getOwner();
+        List<CommentDto> comments = item.getComments();
+        return new ItemWithBookingDTO(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                owner != null ? new UserDto(owner.getId(), owner.getName(), owner.getEmail()) : null,
+                copy(item.getLastBooking()), copy(item.getNextBooking()),
+                comments != null ? comments.stream()
+                        .map(comment -> new CommentDto(comment.getId(), comment.getText(), comment.getAuthorName(),
+                                comment.getCreated()))
+                        .collect(Collectors.toList()) : null,
+                item.getRequestId());
+    }
+
+    private static BookingShortDto copy(BookingShortDto booking) {
+        return booking != null ? new BookingShortDto(booking.getId(), booking.getBookerId()) : null;
+    }
+
+    private void evictNow(long itemId) {
+        items.invalidate(new Key(itemId, false));
+        items.invalidate(new Key(itemId, true));
+    }
+
+    /**
+     * Собранный ответ и момент, после которого он устаревает сам по себе (null - только по TTL).
+     */
+    @Data
+    public static class ItemDetails {
+        private final ItemWithBookingDTO item;
+        private final LocalDateTime validUntil;
+    }
+
+    @Data
+    private static class Key {
+        private final long itemId;
+        private final boolean ownerView;
+    }
+}
@@ -16,6 +16,8 @@ public interface ItemMapper {
 
     ItemWithBookingDTO toDtoWithBooking(Item item);
 
+    Item copy(Item item);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateItemFromDto(ItemDto itemDto, @MappingTarget Item item);
 }
@@ -1,19 +1,65 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.User;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    int LOAD_BATCH_SIZE = 1000;
+
     List<Item> findByOwnerOrderByIdAsc(User owner);
 
+    @EntityGraph(attributePaths = "owner")
     @Query(" select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             " or upper(i.description) like upper(concat('%', ?1, '%')))" +
             " and i.available is true")
     List<Item> search(String query);
 
-    List<Item> findAllByRequestId(long itemRequestId);
+    /**
+     * Возвращает id найденных предметов в порядке ts_rank, сами предметы с владельцами загружает
+     * findAllWithOwnerById: владельцы из native-запроса подгружались бы по одному. Hibernate отдает bigint
+     * из native-запроса как BigInteger, поэтому элементы результата объявлены как Number.
+     */
+    @Query(value = " select i.id from items i " +
+            "where i.search_vector @@ to_tsquery('simple', ?1) " +
+            " and i.is_available is true " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', ?1)) desc, i.id",
+            nativeQuery = true)
+    List<Number> searchFullText(String tsQuery);
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Загружает предметы вместе с владельцами пачками по 1000 id и возвращает их в порядке переданных id.
+     */
+    default List<Item> findAllWithOwnerById(List<Long> ids) {
+        Map<Long, Item> itemsById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            for (Item item : findAllByIdIn(ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size())))) {
+                itemsById.put(item.getId(), item);
+            }
+        }
+        List<Item> items = new ArrayList<>();
+        for (Long id : ids) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByRequestIdIn(Collection<Long> itemRequestIds);
+
+    List<Item> findFirst1000ByIdGreaterThanOrderByIdAsc(long id);
 }
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -21,6 +23,8 @@ public interface ItemService {
 
     List<ItemDto> search(String query, long userId);
 
+    List<AvailabilitySlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
     void delete(long itemId);
 
     void checkItemOwner(long itemId, long userId);
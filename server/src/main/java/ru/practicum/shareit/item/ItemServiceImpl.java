@@ -6,23 +6,31 @@ import org.apache.commons.lang.StringUtils;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStore;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -36,13 +44,17 @@ public class ItemServiceImpl implements ItemService {
     private final CommentMapper commentMapper;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingStore bookingStore;
+    private final ItemDetailsCache itemDetailsCache;
 
     @Override
     public ItemDto create(ItemDto itemDto, long userId) {
         User user = userMapper.toUser(userService.getUser(userId));
         itemDto.setOwner(userMapper.toDto(user));
-        Item item = itemMapper.toItem(itemDto);
-        return itemMapper.toDto(itemRepository.save(item));
+        Item item = itemRepository.save(itemMapper.toItem(itemDto));
+        itemSearchEngine.onItemSaved(null, item);
+        return itemMapper.toDto(item);
     }
 
     @Override
@@ -58,7 +70,9 @@ public class ItemServiceImpl implements ItemService {
         if (!booking.isPresent()) {
             throw new ValidationException("не найдено бронирование Item");
         }
-        return commentMapper.toDto(commentRepository.save(comment));
+        CommentDto createdComment = commentMapper.toDto(commentRepository.save(comment));
+        itemDetailsCache.evict(itemId);
+        return createdComment;
     }
 
     @Override
@@ -66,8 +80,12 @@ public class ItemServiceImpl implements ItemService {
         long itemId = itemDto.getId();
         checkItemOwner(itemId, userId);
         Item item = itemRepository.getReferenceById(itemId);
+        Item previous = itemMapper.copy(item);
         itemMapper.updateItemFromDto(itemDto, item);
-        return itemMapper.toDto(itemRepository.save(item));
+        item = itemRepository.save(item);
+        itemSearchEngine.onItemSaved(previous, item);
+        itemDetailsCache.evict(itemId);
+        return itemMapper.toDto(item);
     }
 
     @Override
@@ -77,14 +95,11 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemWithBookingDTO getItemWithBooking(long id, long userId) {
-        Item item = itemRepository.getReferenceById(id);
-        User user = userMapper.toUser(userService.getUser(userId));
-        ItemWithBookingDTO itemWithBookingDTO = itemMapper.toDtoWithBooking(item);
-        if (item.getOwner().equals(user)) {
-            itemWithBookingDTO = addBookingToItem(item);
+        userService.getUser(userId);
+        ItemWithBookingDTO itemWithBookingDTO = itemDetailsCache.get(id, false, () -> loadItemDetails(id, false));
+        if (itemWithBookingDTO.getOwner().getId() == userId) {
+            itemWithBookingDTO = itemDetailsCache.get(id, true, () -> loadItemDetails(id, true));
         }
-        List<Comment> commentList = commentRepository.findAllByItemEquals(item);
-        itemWithBookingDTO.setComments(listCommentToDto(commentList));
         return itemWithBookingDTO;
     }
 
@@ -92,9 +107,20 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemWithBookingDTO> getAll(long userid) {
         User user = userMapper.toUser(userService.getUser(userid));
         List<ItemWithBookingDTO> listItemWithBookingDTO = new ArrayList<>();
-        for (Item item : itemRepository.findByOwnerOrderByIdAsc(user)) {
-            ItemWithBookingDTO itemWithBookingDTO = addBookingToItem(item);
-            List<Comment> commentList = commentRepository.findAllByItemEquals(item);
+        List<Item> listItem = itemRepository.findByOwnerOrderByIdAsc(user);
+        if (listItem.isEmpty()) {
+            return listItemWithBookingDTO;
+        }
+        List<Long> itemIds = listItem.stream().map(Item::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = mapBookingByItemId(bookingRepository.findLastByItemIds(itemIds, now));
+        Map<Long, Booking> nextBookings = mapBookingByItemId(bookingRepository.findNextByItemIds(itemIds, now));
+        Map<Long, List<Comment>> comments = commentRepository.findAllWithAuthorByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        for (Item item : listItem) {
+            ItemWithBookingDTO itemWithBookingDTO = addBookingToItem(item, lastBookings.get(item.getId()),
+                    nextBookings.get(item.getId()));
+            List<Comment> commentList = comments.getOrDefault(item.getId(), Collections.emptyList());
             itemWithBookingDTO.setComments(listCommentToDto(commentList));
             listItemWithBookingDTO.add(itemWithBookingDTO);
         }
@@ -106,15 +132,41 @@ public class ItemServiceImpl implements ItemService {
         User user = userMapper.toUser(userService.getUser(userId));
         List<Item> listItem = new ArrayList<>();
         if (StringUtils.isNotBlank(query)) {
-            listItem = itemRepository.search(query);
+            listItem = itemSearchEngine.search(query);
         }
         return listItemToDto(listItem);
     }
 
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Ошибка в параметрах запроса: from должен быть раньше to");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item с ID=" + itemId + " не найден");
+        }
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (BookingPeriod period : bookingStore.findPeriods(itemId, from, to)) {
+            if (period.getStart().isAfter(freeFrom)) {
+                slots.add(new AvailabilitySlotDto(freeFrom, period.getStart()));
+            }
+            if (period.getEnd().isAfter(freeFrom)) {
+                freeFrom = period.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            slots.add(new AvailabilitySlotDto(freeFrom, to));
+        }
+        return slots;
+    }
+
     @Override
     public void delete(long itemId) {
         Item item = itemRepository.getReferenceById(itemId);;
         itemRepository.delete(item);
+        itemSearchEngine.onItemDeleted(item);
+        itemDetailsCache.evict(itemId);
     }
 
     @Override
@@ -142,15 +194,45 @@ public class ItemServiceImpl implements ItemService {
         return listCommentDto;
     }
 
-    private ItemWithBookingDTO addBookingToItem(Item item) {
-        Booking lastBooking = bookingRepository.findFirstByItemEqualsAndEndBeforeOrderByEndDesc(
-                item, LocalDateTime.now());
-        Booking nextBooking = bookingRepository.findFirstByItemEqualsAndStartAfterOrderByStartAsc(
-                item, LocalDateTime.now());
+    /**
+     * Собирает ответ для кэша. Вариант для владельца устаревает, как только начнётся следующее бронирование
+     * или закончится ближайшее текущее: тогда меняются lastBooking и nextBooking.
+     */
+    private ItemDetailsCache.ItemDetails loadItemDetails(long id, boolean ownerView) {
+        Item item = itemRepository.getReferenceById(id);
+        ItemWithBookingDTO itemWithBookingDTO = itemMapper.toDtoWithBooking(item);
+        LocalDateTime validUntil = null;
+        if (ownerView) {
+            LocalDateTime now = LocalDateTime.now();
+            Booking lastBooking = bookingRepository.findFirstByItemEqualsAndEndBeforeOrderByEndDesc(item, now);
+            Booking nextBooking = bookingRepository.findFirstByItemEqualsAndStartAfterOrderByStartAsc(item, now);
+            Booking endingBooking = bookingRepository.findFirstByItemEqualsAndEndAfterOrderByEndAsc(item, now);
+            itemWithBookingDTO = addBookingToItem(item, lastBooking, nextBooking);
+            if (nextBooking != null) {
+                validUntil = nextBooking.getStart();
+            }
+            if (endingBooking != null && (validUntil == null || endingBooking.getEnd().isBefore(validUntil))) {
+                validUntil = endingBooking.getEnd();
+            }
+        }
+        List<Comment> commentList = commentRepository.findAllWithAuthorByItemIds(Collections.singletonList(id));
+        itemWithBookingDTO.setComments(listCommentToDto(commentList));
+        return new ItemDetailsCache.ItemDetails(itemWithBookingDTO, validUntil);
+    }
+
+    private ItemWithBookingDTO addBookingToItem(Item item, Booking lastBooking, Booking nextBooking) {
         ItemWithBookingDTO itemWithBookingDTO = itemMapper.toDtoWithBooking(item);
         itemWithBookingDTO.setLastBooking(bookingMapper.toShortDto(lastBooking));
         itemWithBookingDTO.setNextBooking(bookingMapper.toShortDto(nextBooking));
         return itemWithBookingDTO;
     }
 
+    private Map<Long, Booking> mapBookingByItemId(List<Booking> listBooking) {
+        Map<Long, Booking> bookingByItemId = new HashMap<>();
+        for (Booking booking : listBooking) {
+            bookingByItemId.putIfAbsent(booking.getItem().getId(), booking);
+        }
+        return bookingByItemId;
+    }
+
 }
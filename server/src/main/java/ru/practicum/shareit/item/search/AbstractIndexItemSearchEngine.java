@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Общая часть поиска по индексу в памяти процесса. Индекс строится из базы при старте приложения,
+ * до окончания построения запросы выполняются через like. Изменения предметов приходят из ItemServiceImpl
+ * и применяются к индексу только после коммита транзакции, в которой они сделаны. Если предмет не удается
+ * поместить в индекс, индекс отключается до следующего построения и поиск снова идет через like.
+ */
+@Slf4j
+abstract class AbstractIndexItemSearchEngine<T extends ItemIndex> implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    protected final ItemRepository itemRepository;
+    private volatile T index;
+    private volatile boolean ready;
+
+    protected AbstractIndexItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+        this.index = newIndex();
+    }
+
+    protected abstract T newIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        ready = false;
+        T rebuiltIndex = newIndex();
+        long itemCount = 0;
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findFirst1000ByIdGreaterThanOrderByIdAsc(lastId);
+            for (Item item : batch) {
+                if (!ItemIndex.supports(item.getId())) {
+                    log.warn("Поисковый индекс " + getClass().getSimpleName() + " не построен: id предмета "
+                            + item.getId() + " не помещается в индекс, поиск выполняется через like");
+                    return;
+                }
+                rebuiltIndex.add(item.getId(), item.getName(), item.getDescription(),
+                        Boolean.TRUE.equals(item.getAvailable()));
+                lastId = item.getId();
+            }
+            itemCount += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        index = rebuiltIndex;
+        ready = true;
+        log.info("Поисковый индекс " + getClass().getSimpleName() + " построен: предметов " + itemCount
+                + ", ключей " + rebuiltIndex.keyCount());
+    }
+
+    @Override
+    public void onItemSaved(Item previous, Item saved) {
+        long id = saved.getId();
+        String name = saved.getName();
+        String description = saved.getDescription();
+        boolean available = Boolean.TRUE.equals(saved.getAvailable());
+        String previousName = previous != null ? previous.getName() : null;
+        String previousDescription = previous != null ? previous.getDescription() : null;
+        applyOnCommit(id, () -> {
+            if (previous != null) {
+                index.remove(id, previousName, previousDescription);
+            }
+            index.add(id, name, description, available);
+        });
+    }
+
+    @Override
+    public void onItemDeleted(Item item) {
+        long id = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        applyOnCommit(id, () -> index.remove(id, name, description));
+    }
+
+    /**
+     * Значения полей предмета копируются до регистрации, потому что после коммита сущность уже отсоединена.
+     */
+    private void applyOnCommit(long itemId, Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyNow(itemId, update);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyNow(itemId, update);
+            }
+        });
+    }
+
+    /**
+     * Ошибка обновления не выходит за пределы метода: транзакция уже зафиксирована, а индекс, пропустивший
+     * изменение, перестает использоваться до следующего построения.
+     */
+    private synchronized void applyNow(long itemId, Runnable update) {
+        if (!ItemIndex.supports(itemId)) {
+            disable("id предмета " + itemId + " не помещается в индекс");
+            return;
+        }
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            log.error("Не удалось обновить поисковый индекс для предмета " + itemId, e);
+            disable(e.getMessage());
+        }
+    }
+
+    private void disable(String reason) {
+        if (ready) {
+            log.warn("Поисковый индекс " + getClass().getSimpleName() + " отключен до следующего построения: "
+                    + reason + ", поиск выполняется через like");
+        }
+        ready = false;
+    }
+
+    protected boolean isReady() {
+        return ready;
+    }
+
+    protected T getIndex() {
+        return index;
+    }
+
+    protected List<Item> findAllById(BitSet itemIds) {
+        return itemRepository.findAllWithOwnerById(itemIds.stream().mapToObj(Long::valueOf)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+/**
+ * Полнотекстовый поиск PostgreSQL по колонке items.search_vector с GIN индексом (миграция postgresql/V2).
+ * Каждое слово запроса ищется как префикс слова в названии или описании, результат сортируется по ts_rank.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "full-text")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text) {
+        String tsQuery = toTsQuery(text);
+        if (tsQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = itemRepository.searchFullText(tsQuery).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        return itemRepository.findAllWithOwnerById(ids);
+    }
+
+    static String toTsQuery(String text) {
+        StringJoiner tsQuery = new StringJoiner(" & ");
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                tsQuery.add(word + ":*");
+            }
+        }
+        return tsQuery.toString();
+    }
+}
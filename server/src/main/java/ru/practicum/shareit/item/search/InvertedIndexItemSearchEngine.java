@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Поиск по инвертированному индексу слов: каждое слово запроса ищется как начало слова в названии
+ * или описании предмета.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index")
+public class InvertedIndexItemSearchEngine extends AbstractIndexItemSearchEngine<ItemTermIndex> {
+
+    public InvertedIndexItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected ItemTermIndex newIndex() {
+        return new ItemTermIndex();
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        if (!isReady()) {
+            return itemRepository.search(text);
+        }
+        return findAllById(getIndex().search(text));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.BitSet;
+
+/**
+ * Индексы хранят id предметов в битовых множествах, поэтому в них помещаются только id от 0 до Integer.MAX_VALUE.
+ */
+interface ItemIndex {
+    static boolean supports(long itemId) {
+        return itemId >= 0 && itemId <= Integer.MAX_VALUE;
+    }
+
+    void add(long itemId, String name, String description, boolean isAvailable);
+
+    void remove(long itemId, String name, String description);
+
+    BitSet search(String text);
+
+    int keyCount();
+}
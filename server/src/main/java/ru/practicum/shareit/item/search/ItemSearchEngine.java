@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> search(String text);
+
+    default void onItemSaved(Item previous, Item saved) {
+    }
+
+    default void onItemDeleted(Item item) {
+    }
+}
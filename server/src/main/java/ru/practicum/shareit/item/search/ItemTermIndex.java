@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс: слово названия или описания -> список id предметов.
+ * Доступность предметов хранится отдельным битовым множеством.
+ */
+class ItemTermIndex implements ItemIndex {
+    private final NavigableMap<String, IntPostingList> postings = new TreeMap<>();
+    private final BitSet available = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void add(long itemId, String name, String description, boolean isAvailable) {
+        int id = Math.toIntExact(itemId);
+        lock.writeLock().lock();
+        try {
+            for (String term : terms(name, description)) {
+                postings.computeIfAbsent(term, key -> new IntPostingList()).add(id);
+            }
+            available.set(id, isAvailable);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long itemId, String name, String description) {
+        int id = Math.toIntExact(itemId);
+        lock.writeLock().lock();
+        try {
+            for (String term : terms(name, description)) {
+                IntPostingList postingList = postings.get(term);
+                if (postingList != null) {
+                    postingList.remove(id);
+                    if (postingList.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+            available.clear(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает доступные предметы, у которых каждое слово запроса является началом какого-либо слова
+     * названия или описания. Номера установленных битов результата - id предметов.
+     */
+    @Override
+    public BitSet search(String text) {
+        Set<String> queryTerms = terms(text);
+        BitSet result = new BitSet();
+        if (queryTerms.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            result.or(available);
+            for (String queryTerm : queryTerms) {
+                BitSet matches = new BitSet();
+                for (Map.Entry<String, IntPostingList> entry : postings.subMap(queryTerm, true,
+                        queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                    entry.getValue().orInto(matches);
+                }
+                result.and(matches);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public int keyCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> terms(String... texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс триграмм названия и описания: тройка подряд идущих символов -> список id предметов.
+ * Поиск возвращает кандидатов, содержащих все триграммы запроса; наличие подстроки проверяет вызывающий.
+ */
+class ItemTrigramIndex implements ItemIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, IntPostingList> postings = new HashMap<>();
+    private final BitSet available = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void add(long itemId, String name, String description, boolean isAvailable) {
+        int id = Math.toIntExact(itemId);
+        lock.writeLock().lock();
+        try {
+            for (Long trigram : trigrams(name, description)) {
+                postings.computeIfAbsent(trigram, key -> new IntPostingList()).add(id);
+            }
+            available.set(id, isAvailable);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long itemId, String name, String description) {
+        int id = Math.toIntExact(itemId);
+        lock.writeLock().lock();
+        try {
+            for (Long trigram : trigrams(name, description)) {
+                IntPostingList postingList = postings.get(trigram);
+                if (postingList != null) {
+                    postingList.remove(id);
+                    if (postingList.isEmpty()) {
+                        postings.remove(trigram);
+                    }
+                }
+            }
+            available.clear(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает доступные предметы, в названии или описании которых встречаются все триграммы запроса.
+     * Запрос короче трех символов не сужает выборку, для него возвращается пустой результат.
+     */
+    @Override
+    public BitSet search(String text) {
+        Set<Long> queryTrigrams = trigrams(text);
+        BitSet result = new BitSet();
+        if (queryTrigrams.isEmpty()) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            List<IntPostingList> postingLists = new ArrayList<>();
+            for (Long trigram : queryTrigrams) {
+                IntPostingList postingList = postings.get(trigram);
+                if (postingList == null) {
+                    return result;
+                }
+                postingLists.add(postingList);
+            }
+            postingLists.sort(Comparator.comparingInt(IntPostingList::size));
+            postingLists.get(0).orInto(result);
+            result.and(available);
+            for (int i = 1; i < postingLists.size() && !result.isEmpty(); i++) {
+                BitSet matches = new BitSet();
+                postingLists.get(i).orInto(matches);
+                result.and(matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public int keyCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Переводит символы в верхний регистр по одному, как upper() в PostgreSQL: длина строки не меняется,
+     * в отличие от String.toUpperCase, где, например, ß превращается в SS. H2 в тестах использует
+     * String.toUpperCase, поэтому на таких символах результаты с like-запросом на H2 могут расходиться.
+     */
+    static String normalize(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toUpperCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    static Set<Long> trigrams(String... texts) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            String normalized = normalize(text);
+            for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+                trigrams.add(((long) normalized.charAt(i) << 32)
+                        | ((long) normalized.charAt(i + 1) << 16)
+                        | normalized.charAt(i + 2));
+            }
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Поиск подстроки через like по названию и описанию. Используется по умолчанию и в профиле test,
+ * где база H2 не поддерживает полнотекстовый поиск PostgreSQL.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text) {
+        return itemRepository.search(text);
+    }
+}
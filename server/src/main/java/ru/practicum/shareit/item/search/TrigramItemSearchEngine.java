@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск подстроки с той же семантикой, что и like-запрос ItemRepository.search. Индекс триграмм сужает
+ * выборку до кандидатов, после чего подстрока проверяется в названии и описании каждого кандидата.
+ * Регистр сравнивается посимвольным upper, как в запросе. Символы %, _ и \ в like-запросе работают как шаблоны
+ * и экранирование, поэтому такие запросы, как и запросы короче трех символов, выполняются через like.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram")
+public class TrigramItemSearchEngine extends AbstractIndexItemSearchEngine<ItemTrigramIndex> {
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository) {
+        super(itemRepository);
+    }
+
+    @Override
+    protected ItemTrigramIndex newIndex() {
+        return new ItemTrigramIndex();
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        if (!isReady() || text.length() < ItemTrigramIndex.GRAM_LENGTH || hasLikePatternChars(text)) {
+            return itemRepository.search(text);
+        }
+        String substring = ItemTrigramIndex.normalize(text);
+        return findAllById(getIndex().search(text)).stream()
+                .filter(item -> contains(item.getName(), substring) || contains(item.getDescription(), substring))
+                .collect(Collectors.toList());
+    }
+
+    private boolean hasLikePatternChars(String text) {
+        return text.indexOf('%') >= 0 || text.indexOf('_') >= 0 || text.indexOf('\\') >= 0;
+    }
+
+    private boolean contains(String text, String substring) {
+        return text != null && ItemTrigramIndex.normalize(text).contains(substring);
+    }
+}
@@ -17,12 +17,21 @@ import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @AllArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
+    /**
+     * Сколько id запросов передаётся в один IN, чтобы не упереться в лимит параметров драйвера.
+     */
+    static final int REQUEST_IDS_CHUNK_SIZE = 500;
+
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper itemRequestMapper;
@@ -45,7 +54,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User user = userMapper.toUser(userService.getUser(userId));
         log.info("Запрос от пользователя: " + user.toString());
         ItemRequest itemRequest = itemRequestRepository.getReferenceById(id);
-        return addItemDtoList(itemRequest);
+        return getItemRequestDtoList(Collections.singletonList(itemRequest)).get(0);
     }
 
     @Override
@@ -74,18 +83,28 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private List<ItemRequestDto> getItemRequestDtoList(List<ItemRequest> listItemRequest) {
+        Map<Long, List<Item>> itemsByRequestId = findItemsByRequestIds(listItemRequest.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList()));
         List<ItemRequestDto> itemRequestDtoList = new ArrayList<>();
         for (ItemRequest itemRequest : listItemRequest) {
-            itemRequestDtoList.add(addItemDtoList(itemRequest));
+            ItemRequestDto itemRequestDto = itemRequestMapper.toDto(itemRequest);
+            itemRequestDto.setItems(listItemToDto(itemsByRequestId.getOrDefault(itemRequest.getId(),
+                    Collections.emptyList())));
+            itemRequestDtoList.add(itemRequestDto);
         }
         return itemRequestDtoList;
     }
 
-    private ItemRequestDto addItemDtoList(ItemRequest itemRequest) {
-        ItemRequestDto itemRequestDto = itemRequestMapper.toDto(itemRequest);
-        List<Item> itemList = itemRepository.findAllByRequestId(itemRequest.getId());
-        itemRequestDto.setItems(listItemToDto(itemList));
-        return itemRequestDto;
+    private Map<Long, List<Item>> findItemsByRequestIds(List<Long> requestIds) {
+        Map<Long, List<Item>> itemsByRequestId = new HashMap<>();
+        for (int from = 0; from < requestIds.size(); from += REQUEST_IDS_CHUNK_SIZE) {
+            List<Long> chunk = requestIds.subList(from, Math.min(from + REQUEST_IDS_CHUNK_SIZE, requestIds.size()));
+            for (Item item : itemRepository.findAllByRequestIdIn(chunk)) {
+                itemsByRequestId.computeIfAbsent(item.getRequestId(), requestId -> new ArrayList<>()).add(item);
+            }
+        }
+        return itemsByRequestId;
     }
 
     private List<ItemDto> listItemToDto(List<Item> listItem) {
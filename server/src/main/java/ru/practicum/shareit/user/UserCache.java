@@ -0,0 +1,77 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Кэш пользователей по id для проверки заголовка X-Sharer-User-Id.
+ * Отсутствующие пользователи тоже запоминаются, но на меньший срок.
+ */
+@Component
+public class UserCache {
+    private final Cache<Long, Optional<UserDto>> users;
+
+    public UserCache(@Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user-cache.ttl:10m}") Duration ttl,
+                     @Value("${shareit.user-cache.negative-ttl:30s}") Duration negativeTtl,
+                     MeterRegistry meterRegistry) {
+        users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<UserDto>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<UserDto> user, long currentTime) {
+                        return (user.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<UserDto> user, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(id, user, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<UserDto> user, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    /**
+     * Возвращает копию пользователя из кэша, при промахе загружает его через loader.
+     */
+    public Optional<UserDto> get(long id, Function<Long, Optional<UserDto>> loader) {
+        return users.get(id, loader).map(user -> new UserDto(user.getId(), user.getName(), user.getEmail()));
+    }
+
+    /**
+     * Сбрасывает запись сразу и ещё раз после завершения текущей транзакции, чтобы в кэше не осталось
+     * значения, прочитанного до коммита или отката.
+     */
+    public void invalidate(long id) {
+        users.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(id);
+                }
+            });
+        }
+    }
+}
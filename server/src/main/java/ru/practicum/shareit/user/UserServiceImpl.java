@@ -3,8 +3,10 @@ package ru.practicum.shareit.user;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.item.ItemDetailsCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.persistence.EntityNotFoundException;
 import java.util.List;
 
 @Slf4j
@@ -14,22 +16,30 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper mapper;
+    private final UserCache userCache;
+    private final ItemDetailsCache itemDetailsCache;
 
     @Override
     public UserDto create(UserDto userDto) {
-        return mapper.toDto(userRepository.save(mapper.toUser(userDto)));
+        UserDto createdUser = mapper.toDto(userRepository.save(mapper.toUser(userDto)));
+        userCache.invalidate(createdUser.getId());
+        return createdUser;
     }
 
     @Override
     public UserDto update(UserDto userDto) {
         User user = userRepository.getReferenceById(userDto.getId());
         mapper.updateUserFromDto(userDto, user);
-        return mapper.toDto(userRepository.save(user));
+        UserDto updatedUser = mapper.toDto(userRepository.save(user));
+        userCache.invalidate(updatedUser.getId());
+        itemDetailsCache.evictAll();
+        return updatedUser;
     }
 
     @Override
     public UserDto getUser(long id) {
-        return mapper.toDto(userRepository.getReferenceById(id));
+        return userCache.get(id, userId -> userRepository.findById(userId).map(mapper::toDto))
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь с ID=" + id + " не найден"));
     }
 
     @Override
@@ -41,6 +51,8 @@ public class UserServiceImpl implements UserService {
     public void delete(long userId) {
         User user = userRepository.getReferenceById(userId);
         userRepository.delete(user);
+        userCache.invalidate(userId);
+        itemDetailsCache.evictAll();
     }
 
 }
@@ -0,0 +1,5 @@
+-- До перехода на Flyway schema.sql пересоздавал эти таблицы при каждом запуске сервера, поэтому данных,
+-- переживших перезапуск, в них нет. В базе со старой схемой Flyway ставит baseline версии 0
+-- (spring.flyway.baseline-on-migrate), эта миграция удаляет старые таблицы, и V1 и V2 создают схему заново
+-- вместе с индексами. В новой базе таблиц ещё нет и миграция ничего не делает.
+DROP TABLE IF EXISTS USERS, ITEMS, BOOKINGS, REQUESTS, COMMENTS CASCADE;
@@ -0,0 +1,64 @@
+CREATE TABLE USERS
+(
+    ID    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    NAME  VARCHAR,
+    EMAIL VARCHAR(50) NOT NULL,
+    CONSTRAINT PK_USER PRIMARY KEY (ID),
+    CONSTRAINT UQ_USER_EMAIL UNIQUE (EMAIL)
+);
+
+CREATE TABLE REQUESTS
+(
+    ID           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    DESCRIPTION  VARCHAR(250) NOT NULL,
+    REQUESTOR_ID BIGINT REFERENCES USERS (ID) ON DELETE CASCADE,
+    CREATED      TIMESTAMP WITHOUT TIME ZONE,
+    PRIMARY KEY (ID)
+);
+
+CREATE TABLE ITEMS
+(
+    ID           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    NAME         VARCHAR,
+    DESCRIPTION  VARCHAR(250) NOT NULL,
+    IS_AVAILABLE BOOLEAN,
+    OWNER_ID     BIGINT REFERENCES USERS (ID) ON DELETE CASCADE,
+    REQUEST_ID   BIGINT REFERENCES REQUESTS (ID) ON DELETE CASCADE,
+    PRIMARY KEY (ID)
+);
+
+CREATE TABLE BOOKINGS
+(
+    ID         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    START_DATE TIMESTAMP WITHOUT TIME ZONE,
+    END_DATE   TIMESTAMP WITHOUT TIME ZONE,
+    ITEM_ID    BIGINT REFERENCES ITEMS (ID) ON DELETE CASCADE,
+    BOOKER_ID  BIGINT REFERENCES USERS (ID) ON DELETE CASCADE,
+    STATUS     VARCHAR(20) NOT NULL,
+    VERSION    BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (ID)
+);
+
+CREATE TABLE COMMENTS
+(
+    ID        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    TEXT      VARCHAR(250) NOT NULL,
+    ITEM_ID   BIGINT REFERENCES ITEMS (ID) ON DELETE CASCADE,
+    AUTHOR_ID BIGINT REFERENCES USERS (ID) ON DELETE CASCADE,
+    CREATED   TIMESTAMP WITHOUT TIME ZONE,
+    PRIMARY KEY (ID)
+);
+
+-- Индексы по внешним ключам. BOOKINGS.ITEM_ID и BOOKINGS.BOOKER_ID покрыты
+-- составными индексами ниже, где они стоят первой колонкой.
+CREATE INDEX IDX_REQUESTS_REQUESTOR ON REQUESTS (REQUESTOR_ID);
+CREATE INDEX IDX_ITEMS_OWNER ON ITEMS (OWNER_ID);
+CREATE INDEX IDX_ITEMS_REQUEST ON ITEMS (REQUEST_ID);
+CREATE INDEX IDX_COMMENTS_ITEM ON COMMENTS (ITEM_ID);
+CREATE INDEX IDX_COMMENTS_AUTHOR ON COMMENTS (AUTHOR_ID);
+
+CREATE INDEX IDX_BOOKINGS_ITEM_START ON BOOKINGS (ITEM_ID, START_DATE);
+CREATE INDEX IDX_BOOKINGS_ITEM_END ON BOOKINGS (ITEM_ID, END_DATE);
+CREATE INDEX IDX_BOOKINGS_ITEM_STATUS ON BOOKINGS (ITEM_ID, STATUS);
+CREATE INDEX IDX_BOOKINGS_BOOKER_START ON BOOKINGS (BOOKER_ID, START_DATE);
+CREATE INDEX IDX_BOOKINGS_BOOKER_STATUS ON BOOKINGS (BOOKER_ID, STATUS, ID);
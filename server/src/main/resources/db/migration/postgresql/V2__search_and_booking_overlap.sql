@@ -0,0 +1,19 @@
+ALTER TABLE ITEMS ADD COLUMN SEARCH_VECTOR TSVECTOR
+    GENERATED ALWAYS AS (setweight(to_tsvector('simple', coalesce(NAME, '')), 'A') ||
+                         setweight(to_tsvector('simple', coalesce(DESCRIPTION, '')), 'B')) STORED;
+
+CREATE INDEX IDX_ITEMS_SEARCH_VECTOR ON ITEMS USING GIN (SEARCH_VECTOR);
+
+CREATE EXTENSION IF NOT EXISTS PG_TRGM;
+
+CREATE INDEX IDX_ITEMS_NAME_TRGM ON ITEMS USING GIN (upper(NAME) GIN_TRGM_OPS);
+
+CREATE INDEX IDX_ITEMS_DESCRIPTION_TRGM ON ITEMS USING GIN (upper(DESCRIPTION) GIN_TRGM_OPS);
+
+CREATE EXTENSION IF NOT EXISTS BTREE_GIST;
+
+ALTER TABLE BOOKINGS ADD COLUMN PERIOD TSRANGE
+    GENERATED ALWAYS AS (TSRANGE(START_DATE, END_DATE)) STORED;
+
+ALTER TABLE BOOKINGS ADD CONSTRAINT BOOKINGS_NO_OVERLAP
+    EXCLUDE USING GIST (ITEM_ID WITH =, PERIOD WITH &&) WHERE (STATUS IN ('WAITING', 'APPROVED'));
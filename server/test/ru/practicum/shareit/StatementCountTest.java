@@ -0,0 +1,236 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов на вызов эндпоинта не должно зависеть от количества дочерних строк.
+ * Кэши пользователей и предметов выключены, чтобы каждый вызов доходил до базы.
+ */
+@DirtiesContext
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "db.name=test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.user-cache.maximum-size=0",
+        "shareit.item-cache.maximum-size=0"})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class StatementCountTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final AtomicInteger EMAILS = new AtomicInteger();
+
+    private final MockMvc mvc;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PlatformTransactionManager transactionManager;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void getUsers(int rows) throws Exception {
+        Fixture fixture = seed(rows);
+
+        assertStatements(1, get("/users"));
+        assertStatements(1, get("/users/{id}", fixture.owner.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void getOwnerItems(int rows) throws Exception {
+        Fixture fixture = seed(rows);
+
+        assertStatements(5, get("/items").header(USER_HEADER, fixture.owner.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void getItemWithComments(int rows) throws Exception {
+        Fixture fixture = seed(rows);
+
+        assertStatements(7, get("/items/{id}", fixture.firstItem.getId()).header(USER_HEADER,
+                fixture.owner.getId()));
+        assertStatements(4, get("/items/{id}", fixture.firstItem.getId()).header(USER_HEADER,
+                fixture.booker.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void searchItems(int rows) throws Exception {
+        Fixture fixture = seed(rows);
+
+        assertStatements(3, get("/items/search").param("text", fixture.searchWord)
+                .header(USER_HEADER, fixture.booker.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void getBookings(int rows) throws Exception {
+        Fixture fixture = seed(rows);
+
+        assertStatements(2, get("/bookings").param("state", "ALL")
+                .header(USER_HEADER, fixture.booker.getId()));
+        assertStatements(2, get("/bookings").param("state", "FUTURE").param("from", "0").param("size", "100")
+                .header(USER_HEADER, fixture.booker.getId()));
+        assertStatements(2, get("/bookings/owner").param("state", "ALL")
+                .header(USER_HEADER, fixture.owner.getId()));
+        assertStatements(2, get("/bookings/owner").param("state", "PAST").param("from", "0").param("size", "100")
+                .header(USER_HEADER, fixture.owner.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void getItemRequests(int rows) throws Exception {
+        Fixture fixture = seed(rows);
+
+        assertStatements(3, get("/requests").header(USER_HEADER, fixture.requestor.getId()));
+        assertStatements(4, get("/requests/all").param("from", "0").param("size", "100")
+                .header(USER_HEADER, fixture.owner.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void writeBookingsAndComments(int rows) throws Exception {
+        Fixture fixture = seed(rows);
+        LocalDateTime start = LocalDateTime.now().plusYears(5).withNano(0);
+
+        assertStatements(5, post("/bookings")
+                .content("{\"itemId\": " + fixture.firstItem.getId() + ", \"start\": \"" + start
+                        + "\", \"end\": \"" + start.plusDays(1) + "\"}")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(USER_HEADER, fixture.booker.getId()));
+        assertStatements(2, patch("/bookings/{id}", fixture.futureBooking.getId()).param("approved", "true")
+                .header(USER_HEADER, fixture.owner.getId()));
+        assertStatements(3, post("/items/{id}/comment", fixture.firstItem.getId())
+                .content("{\"text\": \"Отличная вещь\"}")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(USER_HEADER, fixture.booker.getId()));
+    }
+
+    private void assertStatements(long maxStatements, MockHttpServletRequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(request).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(maxStatements));
+    }
+
+    /**
+     * Владелец с rows предметами, у каждого предмета свой запрос, прошлое бронирование отдельного пользователя
+     * и комментарий от него же. Основной пользователь забронировал каждый предмет в будущем.
+     */
+    private Fixture seed(int rows) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Fixture fixture = new Fixture();
+            fixture.owner = user();
+            fixture.booker = user();
+            fixture.requestor = user();
+            fixture.searchWord = "дрель" + EMAILS.incrementAndGet();
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            for (int i = 0; i < rows; i++) {
+                ItemRequest itemRequest = new ItemRequest();
+                itemRequest.setDescription("Нужна дрель");
+                itemRequest.setRequestor(fixture.requestor);
+                itemRequest.setCreated(now.minusDays(1));
+                itemRequestRepository.save(itemRequest);
+
+                Item item = new Item();
+                item.setName("Дрель " + fixture.searchWord);
+                item.setDescription("Простая дрель");
+                item.setAvailable(true);
+                item.setOwner(fixture.owner);
+                item.setRequestId(itemRequest.getId());
+                itemRepository.save(item);
+                if (fixture.firstItem == null) {
+                    fixture.firstItem = item;
+                }
+
+                User pastBooker = user();
+                bookingRepository.save(booking(item, pastBooker, now.minusDays(3), now.minusDays(2)));
+                Booking futureBooking = bookingRepository.save(booking(item, fixture.booker,
+                        now.plusDays(1 + i), now.plusDays(1 + i).plusHours(1)));
+                if (fixture.futureBooking == null) {
+                    fixture.futureBooking = futureBooking;
+                }
+
+                commentRepository.save(comment(item, pastBooker, now.minusDays(1)));
+                commentRepository.save(comment(fixture.firstItem, pastBooker, now.minusDays(1)));
+            }
+            bookingRepository.save(booking(fixture.firstItem, fixture.booker, now.minusDays(5), now.minusDays(4)));
+            return fixture;
+        });
+    }
+
+    private User user() {
+        User user = new User();
+        user.setName("Пётр");
+        user.setEmail("statements" + EMAILS.incrementAndGet() + "@email.com");
+        return userRepository.save(user);
+    }
+
+    private static Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+
+    private static Comment comment(Item item, User author, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText("Хорошая дрель");
+        comment.setCreated(created);
+        return comment;
+    }
+
+    private static class Fixture {
+        private User owner;
+        private User booker;
+        private User requestor;
+        private String searchWord;
+        private Item firstItem;
+        private Booking futureBooking;
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Slf4j
+@DirtiesContext
+@SpringBootTest(
+        properties = {"db.name=test", "spring.datasource.url=jdbc:h2:mem:booking-concurrency"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyTest {
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int ITEMS = 4;
+    private static final int SLOTS = 40;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentBookingsDoNotOverlap() throws Exception {
+        inSession(this::createAndCheckBookings);
+    }
+
+    private Void createAndCheckBookings() throws Exception {
+        UserDto owner = userService.create(new UserDto(0L, "Иван", "concurrency-owner@email.com"));
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemService.create(new ItemDto(0L, "Дрель " + i, "Простая дрель", true, owner, null),
+                    owner.getId()));
+        }
+        List<UserDto> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userService.create(new UserDto(0L, "Пётр", "concurrency-booker" + i + "@email.com")));
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusYears(1).withNano(0);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (UserDto booker : bookers) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    ItemDto item = items.get(random.nextInt(ITEMS));
+                    int slot = random.nextInt(SLOTS);
+                    BookingDto bookingDto = new BookingDto(0, base.plusHours(slot),
+                            base.plusHours(slot + 1 + random.nextInt(3)), item.getId(), item, booker, null);
+                    try {
+                        inSession(() -> bookingService.create(bookingDto, booker.getId()));
+                        created.incrementAndGet();
+                    } catch (ValidationException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        startSignal.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        executor.shutdown();
+        log.info("{} потоков: {} попыток бронирования за {} мс ({} в секунду), создано {}, отклонено {}",
+                THREADS, THREADS * ATTEMPTS_PER_THREAD, elapsedMillis,
+                THREADS * ATTEMPTS_PER_THREAD * 1000L / Math.max(1, elapsedMillis), created.get(), rejected.get());
+
+        List<Booking> bookings = bookingRepository.findAll();
+        assertThat(bookings, hasSize(created.get()));
+        assertThat(created.get() + rejected.get(), equalTo(THREADS * ATTEMPTS_PER_THREAD));
+        assertThat(created.get(), greaterThan(0));
+
+        Map<Long, List<Booking>> bookingsByItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        for (List<Booking> itemBookings : bookingsByItem.values()) {
+            itemBookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < itemBookings.size(); i++) {
+                assertThat(itemBookings.get(i).getStart(),
+                        greaterThanOrEqualTo(itemBookings.get(i - 1).getEnd()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Держит открытым EntityManager на время вызова, как это делает open-in-view для HTTP-запроса.
+     */
+    private <T> T inSession(Callable<T> action) throws Exception {
+        EntityManagerHolder holder = new EntityManagerHolder(entityManagerFactory.createEntityManager());
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, holder);
+        try {
+            return action.call();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            holder.getEntityManager().close();
+        }
+    }
+}
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -19,6 +23,7 @@ import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -113,6 +118,22 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void approveAllBookings() throws Exception {
+        when(bookingService.approveAll(any(), anyLong()))
+                .thenReturn(Arrays.asList(bookingDto));
+
+        mvc.perform(patch("/bookings/owner/approve")
+                        .content(mapper.writeValueAsString(new BookingDecisionDto(Arrays.asList(1L), true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status", is(bookingDto.getStatus().toString())));
+    }
+
     @Test
     void getBookings() throws Exception {
         when(bookingService.getBooking(anyLong(), anyLong()))
@@ -162,13 +183,14 @@ public class BookingControllerTest {
 
     @Test
     void getAllByOwnerWithState() throws Exception {
-        when(bookingService.getAllByOwner(anyLong(),anyString(),any()))
+        when(bookingService.getAllByOwner(anyLong(), anyString(),
+                eq(PageRequest.of(4, 2, Sort.by("id").descending()))))
                 .thenReturn(Arrays.asList(bookingDto));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "All")
-                        .param("from", "0")
+                        .param("from", "4")
                         .param("size", "2"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
@@ -178,13 +200,14 @@ public class BookingControllerTest {
 
     @Test
     void getAllByUserWithState() throws Exception {
-        when(bookingService.getAllByUser(anyLong(),anyString(),any()))
+        when(bookingService.getAllByUser(anyLong(), anyString(),
+                eq(PageRequest.of(1, 2, Sort.by("id").descending()))))
                 .thenReturn(Arrays.asList(bookingDto));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "All")
-                        .param("from", "0")
+                        .param("from", "4")
                         .param("size", "2"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
@@ -199,4 +222,25 @@ public class BookingControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getAllByOwnerWithCursor() throws Exception {
+        when(bookingService.getAllByOwner(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new BookingCursorPage(Arrays.asList(bookingDto), BookingCursor.encode(bookingDto.getId())));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursor", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursor.encode(bookingDto.getId())))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("cursor", "")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
 }
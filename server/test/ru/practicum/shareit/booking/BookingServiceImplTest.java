@@ -6,11 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,10 +22,13 @@ import ru.practicum.shareit.user.dto.UserDto;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import javax.persistence.NoResultException;
+import javax.persistence.PersistenceUnitUtil;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.allOf;
@@ -41,6 +48,8 @@ class BookingServiceImplTest {
     private final UserService userService;
     private final ItemService itemService;
     private final BookingMapper mapper;
+    private final BookingStore bookingStore;
+    private final BookingRepository bookingRepository;
 
     @Test
     void saveBooking() {
@@ -183,6 +192,103 @@ class BookingServiceImplTest {
         });
     }
 
+    @Test
+    void approveStaleBooking() {
+        UserDto owner = userService.create(new UserDto(0L, "Ivan", "stale-owner@email.com"));
+        UserDto booker = userService.create(new UserDto(0L, "Petr", "stale-booker@email.com"));
+        ItemDto itemDto = itemService.create(new ItemDto(0L, "Дрель", "Простая дрель", true, owner, null),
+                owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDto createdBookingDto = service.create(new BookingDto(0, start, start.plusDays(1), itemDto.getId(),
+                itemDto, booker, BookingStatus.WAITING), booker.getId());
+
+        Booking stale = new Booking();
+        stale.setId(createdBookingDto.getId());
+        stale.setStatus(BookingStatus.WAITING);
+        stale.setVersion(0);
+
+        BookingDto approvedBookingDto = service.approve(createdBookingDto.getId(), true, owner.getId());
+
+        assertThat(approvedBookingDto.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(approvedBookingDto.getBooker().getId(), equalTo(booker.getId()));
+        assertThat(em.find(Booking.class, createdBookingDto.getId()).getVersion(), equalTo(1L));
+        Assertions.assertThrows(ConflictException.class, () -> {
+            bookingStore.updateStatus(stale, BookingStatus.REJECTED);
+        });
+        Assertions.assertThrows(NotFoundException.class, () -> {
+            service.approve(createdBookingDto.getId(), false, booker.getId());
+        });
+    }
+
+    @Test
+    void approveAllBookings() {
+        UserDto owner = userService.create(new UserDto(0L, "Ivan", "bulk-owner@email.com"));
+        UserDto booker = userService.create(new UserDto(0L, "Petr", "bulk-booker@email.com"));
+        ItemDto itemDto = itemService.create(new ItemDto(0L, "Дрель", "Простая дрель", true, owner, null),
+                owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusYears(1).withNano(0);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookingIds.add(service.create(new BookingDto(0, start.plusDays(i * 2), start.plusDays(i * 2 + 1),
+                    itemDto.getId(), itemDto, booker, BookingStatus.WAITING), booker.getId()).getId());
+        }
+
+        List<BookingDto> approvedBookings = service.approveAll(new BookingDecisionDto(bookingIds, true),
+                owner.getId());
+
+        assertThat(approvedBookings, hasSize(3));
+        assertThat(approvedBookings, everyItem(hasProperty("status", equalTo(BookingStatus.APPROVED))));
+        assertThat(em.find(Booking.class, bookingIds.get(0)).getVersion(), equalTo(1L));
+        Assertions.assertThrows(NotFoundException.class, () -> {
+            service.approveAll(new BookingDecisionDto(bookingIds, false), booker.getId());
+        });
+        Assertions.assertThrows(ValidationException.class, () -> {
+            service.approveAll(new BookingDecisionDto(bookingIds, true), owner.getId());
+        });
+        Assertions.assertThrows(NotFoundException.class, () -> {
+            service.approveAll(new BookingDecisionDto(Arrays.asList(bookingIds.get(0), Long.MAX_VALUE), false),
+                    owner.getId());
+        });
+        Assertions.assertThrows(ValidationException.class, () -> {
+            service.approveAll(new BookingDecisionDto(bookingIds, null), owner.getId());
+        });
+        Assertions.assertThrows(ValidationException.class, () -> {
+            service.approveAll(new BookingDecisionDto(null, false), owner.getId());
+        });
+        Assertions.assertThrows(ValidationException.class, () -> {
+            service.approveAll(new BookingDecisionDto(Collections.emptyList(), false), owner.getId());
+        });
+        Assertions.assertThrows(ValidationException.class, () -> {
+            service.approveAll(new BookingDecisionDto(Arrays.asList(bookingIds.get(0), null), false),
+                    owner.getId());
+        });
+    }
+
+    @Test
+    void findBookingsWithItemAndBooker() {
+        UserDto owner = userService.create(new UserDto(0L, "Ivan", "graph-owner@email.com"));
+        UserDto booker = userService.create(new UserDto(0L, "Petr", "graph-booker@email.com"));
+        ItemDto itemDto = itemService.create(new ItemDto(0L, "Дрель", "Простая дрель", true, owner, null),
+                owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusYears(2).withNano(0);
+        service.create(new BookingDto(0, start, start.plusDays(1), itemDto.getId(), itemDto, booker,
+                BookingStatus.WAITING), booker.getId());
+        em.flush();
+        em.clear();
+
+        List<Booking> bookerBookings = bookingRepository.findByBookerIdAndIdLessThanOrderByIdDesc(booker.getId(),
+                Long.MAX_VALUE, Pageable.unpaged());
+        List<Booking> ownerBookings = bookingRepository.findByItemOwnerIdAndIdLessThanOrderByIdDesc(owner.getId(),
+                Long.MAX_VALUE, Pageable.unpaged());
+
+        PersistenceUnitUtil persistenceUnitUtil = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        for (Booking booking : Arrays.asList(bookerBookings.get(0), ownerBookings.get(0))) {
+            assertThat(persistenceUnitUtil.isLoaded(booking.getItem()), is(true));
+            assertThat(persistenceUnitUtil.isLoaded(booking.getItem().getOwner()), is(true));
+            assertThat(persistenceUnitUtil.isLoaded(booking.getBooker()), is(true));
+        }
+    }
+
     @Test
     void getAllByUserBookings() {
         // given
@@ -280,6 +386,77 @@ class BookingServiceImplTest {
         });
     }
 
+    @Test
+    void getAllByUserBookingsWithCursor() {
+        // given
+        UserDto owner = userService.create(new UserDto(0L, "Ivan", "cursor-owner@email.com"));
+        UserDto booker = userService.create(new UserDto(0L, "Petr", "cursor-booker@email.com"));
+        ItemDto itemDto = itemService.create(new ItemDto(0L, "Дрель", "Простая дрель", true, owner, null),
+                owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusYears(5);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            BookingDto bookingDto = new BookingDto(0, start.plusDays(i * 2), start.plusDays(i * 2 + 1),
+                    itemDto.getId(), itemDto, booker, BookingStatus.WAITING);
+            ids.add(service.create(bookingDto, booker.getId()).getId());
+        }
+
+        // when
+        BookingCursorPage firstPage = service.getAllByUser(booker.getId(), "ALL", null, 2);
+        BookingCursorPage secondPage = service.getAllByUser(booker.getId(), "ALL", firstPage.getNext(), 2);
+
+        // then
+        assertThat(firstPage.getBookings(), hasSize(2));
+        assertThat(firstPage.getBookings().get(0).getId(), equalTo(ids.get(2)));
+        assertThat(firstPage.getBookings().get(1).getId(), equalTo(ids.get(1)));
+        assertThat(firstPage.getNext(), notNullValue());
+        assertThat(secondPage.getBookings(), hasSize(1));
+        assertThat(secondPage.getBookings().get(0).getId(), equalTo(ids.get(0)));
+        assertThat(secondPage.getNext(), nullValue());
+
+        BookingCursorPage ownerPage = service.getAllByOwner(owner.getId(), "ALL", "", 2);
+        assertThat(ownerPage.getBookings(), hasSize(2));
+        assertThat(ownerPage.getBookings().get(0).getId(), equalTo(ids.get(2)));
+        assertThat(service.getAllByOwner(owner.getId(), "ALL", ownerPage.getNext(), 2).getBookings(), hasSize(1));
+
+        Assertions.assertThrows(ValidationException.class, () -> {
+            service.getAllByUser(booker.getId(), "ALL", "не курсор", 2);
+        });
+    }
+
+    @Test
+    void getAllByOwnerBookingsWithStateAndPage() {
+        // given
+        UserDto owner = userService.create(new UserDto(0L, "Ivan", "state-owner@email.com"));
+        UserDto booker = userService.create(new UserDto(0L, "Petr", "state-booker@email.com"));
+        ItemDto itemDto = itemService.create(new ItemDto(0L, "Дрель", "Простая дрель", true, owner, null),
+                owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusYears(5).withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            BookingDto bookingDto = new BookingDto(0, start.plusDays(i * 2), start.plusDays(i * 2 + 1),
+                    itemDto.getId(), itemDto, booker, BookingStatus.WAITING);
+            ids.add(service.create(bookingDto, booker.getId()).getId());
+        }
+        service.approve(ids.get(3), false, owner.getId());
+
+        // when
+        List<BookingDto> waitingBookings = service.getAllByOwner(owner.getId(), "WAITING",
+                PageRequest.of(0, 2, Sort.by("id").descending()));
+        List<BookingDto> rejectedBookings = service.getAllByUser(booker.getId(), "REJECTED",
+                PageRequest.of(0, 2, Sort.by("id").descending()));
+
+        // then
+        assertThat(waitingBookings, hasSize(2));
+        assertThat(waitingBookings.get(0).getId(), equalTo(ids.get(2)));
+        assertThat(waitingBookings.get(1).getId(), equalTo(ids.get(1)));
+        assertThat(rejectedBookings, hasSize(1));
+        assertThat(rejectedBookings.get(0).getId(), equalTo(ids.get(3)));
+        assertThat(service.getAllByOwner(owner.getId(), "PAST"), empty());
+    }
+
     @Test
     void deleteBooking() {
         BookingDto bookingDto = makeBookingDto(LocalDateTime.now().plusHours(1),
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingTimelineTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingTimeline timeline = new BookingTimeline(bookingRepository);
+
+    @Test
+    void hasOverlapWithLoadedBookings() {
+        when(bookingRepository.findByItemIdAndStatusIn(eq(1L), anyCollection()))
+                .thenReturn(Arrays.asList(period(1, 0, 48), period(2, 72, 96)));
+
+        assertThat(timeline.hasOverlap(1, 0, START.plusHours(47), START.plusHours(50)), is(true));
+        assertThat(timeline.hasOverlap(1, 0, START.plusHours(48), START.plusHours(72)), is(false));
+        assertThat(timeline.hasOverlap(1, 0, START.plusHours(50), START.plusHours(100)), is(true));
+        assertThat(timeline.hasOverlap(1, 0, START.minusHours(1), START.plusHours(200)), is(true));
+        assertThat(timeline.hasOverlap(1, 2, START.plusHours(60), START.plusHours(90)), is(false));
+        assertThat(timeline.findPeriods(1, START.plusHours(40), START.plusHours(80)).stream()
+                .map(BookingPeriod::getId)
+                .collect(Collectors.toList()), contains(1L, 2L));
+        assertThat(timeline.findPeriods(1, START.plusHours(48), START.plusHours(72)), empty());
+        verify(bookingRepository, times(1)).findByItemIdAndStatusIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void putAndRemoveBookings() {
+        when(bookingRepository.findByItemIdAndStatusIn(anyLong(), anyCollection()))
+                .thenReturn(Collections.emptyList());
+        assertThat(timeline.hasOverlap(1, 0, START, START.plusHours(1)), is(false));
+
+        Booking booking = booking(5, 1, BookingStatus.WAITING);
+        timeline.put(booking);
+        assertThat(timeline.hasOverlap(1, 0, START, START.plusHours(1)), is(true));
+        assertThat(timeline.hasOverlap(2, 0, START, START.plusHours(1)), is(false));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        timeline.put(booking);
+        assertThat(timeline.hasOverlap(1, 0, START, START.plusHours(1)), is(false));
+
+        booking.setStatus(BookingStatus.APPROVED);
+        timeline.put(booking);
+        assertThat(timeline.hasOverlap(1, 0, START, START.plusHours(1)), is(true));
+
+        timeline.remove(1, booking.getId());
+        assertThat(timeline.hasOverlap(1, 0, START, START.plusHours(1)), is(false));
+    }
+
+    private static Booking booking(long id, long itemId, BookingStatus status) {
+        Item item = new Item();
+        item.setId(itemId);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(START);
+        booking.setEnd(START.plusDays(1));
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private static BookingPeriod period(long id, int startHours, int endHours) {
+        return new BookingPeriod() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return START.plusHours(startHours);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return START.plusHours(endHours);
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConstraintBookingStoreTest {
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ConstraintBookingStore store = new ConstraintBookingStore(bookingRepository);
+
+    @Test
+    void translateOverlapViolation() {
+        Booking booking = booking();
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint \"bookings_no_overlap\"",
+                        "23P01")));
+
+        Assertions.assertThrows(ValidationException.class, () -> store.save(booking));
+    }
+
+    @Test
+    void rethrowOtherViolations() {
+        Booking booking = booking();
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("not null",
+                new SQLException("null value in column \"status\" violates not-null constraint", "23502"));
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(exception);
+
+        DataIntegrityViolationException thrown = Assertions.assertThrows(DataIntegrityViolationException.class,
+                () -> store.save(booking));
+        assertThat(thrown, sameInstance(exception));
+    }
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setStart(LocalDateTime.of(2030, 1, 1, 12, 0));
+        booking.setEnd(LocalDateTime.of(2030, 1, 2, 12, 0));
+        booking.setStatus(BookingStatus.WAITING);
+        return booking;
+    }
+}
@@ -12,6 +12,7 @@ import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentMapperImpl;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -180,6 +181,22 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description", is(itemWithBookingDTO.getDescription())));
     }
 
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0);
+        when(itemService.getAvailability(anyLong(), any(), any()))
+                .thenReturn(Arrays.asList(new AvailabilitySlotDto(from, from.plusDays(1))));
+
+        mvc.perform(get("/items/{id}/availability", itemDto.getId())
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", "2030-01-01T12:00:00")
+                        .param("to", "2030-01-08T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T12:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-02T12:00:00")));
+    }
+
     @Test
     void deleteItems() throws Exception {
         mvc.perform(delete("/items/{id}", itemDto.getId())
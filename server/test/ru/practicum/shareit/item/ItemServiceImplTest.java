@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDTO;
 import ru.practicum.shareit.user.UserService;
@@ -44,6 +46,7 @@ class ItemServiceImplTest {
 
     private final BookingService bookingService;
     private final ItemMapper mapper;
+    private final MeterRegistry meterRegistry;
 
     private UserDto userDto;
 
@@ -227,6 +230,43 @@ class ItemServiceImplTest {
         assertThat(itemWithBookingDtoOriginal.getDescription(), equalTo(itemDto.getDescription()));
     }
 
+    @Test
+    void getCachedItemWithBooking() {
+        userDto = userService.create(makeUserDto("some@email.com", "Пётр"));
+        UserDto userDtoBooking = userService.create(makeUserDto("someOne@email.com", "Пётр1"));
+        ItemDto item = service.create(makeItemDto("Название", "описание", true, userDto, null),
+                userDto.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        assertThat(service.getItemWithBooking(item.getId(), userDto.getId()).getNextBooking(), nullValue());
+        BookingDto booking = bookingService.create(makeBookingDto(start, start.plusDays(1), item, userDtoBooking),
+                userDtoBooking.getId());
+        ItemWithBookingDTO ownerView = service.getItemWithBooking(item.getId(), userDto.getId());
+        ItemWithBookingDTO bookerView = service.getItemWithBooking(item.getId(), userDtoBooking.getId());
+
+        assertThat(ownerView.getNextBooking().getId(), equalTo(booking.getId()));
+        assertThat(bookerView.getNextBooking(), nullValue());
+        ownerView.setNextBooking(null);
+        ownerView.getOwner().setName("Иван");
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+        ItemWithBookingDTO cachedOwnerView = service.getItemWithBooking(item.getId(), userDto.getId());
+        // владелец читает из кэша оба варианта предмета: общий и со своими бронированиями
+        assertThat(cacheGets("hit"), equalTo(hits + 2));
+        assertThat(cacheGets("miss"), equalTo(misses));
+        assertThat(cachedOwnerView, not(sameInstance(ownerView)));
+        assertThat(cachedOwnerView.getNextBooking().getId(), equalTo(booking.getId()));
+        assertThat(cachedOwnerView.getOwner().getName(), equalTo("Пётр"));
+
+        item.setName("Новое название");
+        service.update(item, userDto.getId());
+
+        assertThat(service.getItemWithBooking(item.getId(), userDtoBooking.getId()).getName(),
+                equalTo("Новое название"));
+        assertThat(service.getItemWithBooking(item.getId(), userDto.getId()).getName(),
+                equalTo("Новое название"));
+    }
+
     @Test
     void getAllItems() {
         // given
@@ -255,6 +295,79 @@ class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void getAllItemsWithBookings() {
+        // given
+        userDto = userService.create(makeUserDto("some@email.com", "Пётр"));
+        UserDto userDtoBooking = userService.create(makeUserDto("someOne@email.com", "Пётр1"));
+        ItemDto firstItem = service.create(makeItemDto("Название1", "описание", true, userDto, null),
+                userDto.getId());
+        ItemDto secondItem = service.create(makeItemDto("Название2", "описание", true, userDto, null),
+                userDto.getId());
+
+        BookingDto lastBooking = bookingService.create(makeBookingDto(LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1), firstItem, userDtoBooking), userDtoBooking.getId());
+        BookingDto nextBooking = bookingService.create(makeBookingDto(LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), firstItem, userDtoBooking), userDtoBooking.getId());
+        bookingService.create(makeBookingDto(LocalDateTime.now().plusDays(3),
+                LocalDateTime.now().plusDays(4), firstItem, userDtoBooking), userDtoBooking.getId());
+        service.createComment(makeCommentDto(0L, "Текст комментария", null, null),
+                firstItem.getId(), userDtoBooking.getId());
+
+        // when
+        List<ItemWithBookingDTO> targetItems = service.getAll(userDto.getId());
+
+        // then
+        assertThat(targetItems, hasSize(2));
+        assertThat(targetItems.get(0).getId(), equalTo(firstItem.getId()));
+        assertThat(targetItems.get(0).getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(targetItems.get(0).getLastBooking().getBookerId(), equalTo(userDtoBooking.getId()));
+        assertThat(targetItems.get(0).getNextBooking().getId(), equalTo(nextBooking.getId()));
+        assertThat(targetItems.get(0).getComments(), hasSize(1));
+        assertThat(targetItems.get(0).getComments().get(0).getAuthorName(), equalTo(userDtoBooking.getName()));
+        assertThat(targetItems.get(1).getId(), equalTo(secondItem.getId()));
+        assertThat(targetItems.get(1).getLastBooking(), nullValue());
+        assertThat(targetItems.get(1).getNextBooking(), nullValue());
+        assertThat(targetItems.get(1).getComments(), empty());
+    }
+
+    @Test
+    void getAvailability() {
+        // given
+        userDto = userService.create(makeUserDto("some@email.com", "Пётр"));
+        UserDto userDtoBooking = userService.create(makeUserDto("someOne@email.com", "Пётр1"));
+        ItemDto item = service.create(makeItemDto("Название1", "описание", true, userDto, null),
+                userDto.getId());
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+
+        bookingService.create(makeBookingDto(from.plusDays(1), from.plusDays(2), item, userDtoBooking),
+                userDtoBooking.getId());
+        BookingDto rejected = bookingService.create(makeBookingDto(from.plusDays(3), from.plusDays(4), item,
+                userDtoBooking), userDtoBooking.getId());
+        bookingService.approve(rejected.getId(), false, userDto.getId());
+        BookingDto approved = bookingService.create(makeBookingDto(from.plusDays(5), from.plusDays(6), item,
+                userDtoBooking), userDtoBooking.getId());
+        bookingService.approve(approved.getId(), true, userDto.getId());
+
+        // when
+        List<AvailabilitySlotDto> slots = service.getAvailability(item.getId(), from, from.plusDays(7));
+
+        // then
+        assertThat(slots, contains(
+                new AvailabilitySlotDto(from, from.plusDays(1)),
+                new AvailabilitySlotDto(from.plusDays(2), from.plusDays(5)),
+                new AvailabilitySlotDto(from.plusDays(6), from.plusDays(7))));
+        assertThat(service.getAvailability(item.getId(), from.plusDays(1).plusHours(1), from.plusDays(2)),
+                empty());
+
+        Assertions.assertThrows(ValidationException.class, () -> {
+            service.getAvailability(item.getId(), from, from);
+        });
+        Assertions.assertThrows(NotFoundException.class, () -> {
+            service.getAvailability(item.getId() + 100, from, from.plusDays(1));
+        });
+    }
+
     @Test
     void searchText() {
         // given
@@ -294,6 +407,10 @@ class ItemServiceImplTest {
         return dto;
     }
 
+    private BookingDto makeBookingDto(LocalDateTime start, LocalDateTime end, ItemDto item, UserDto booker) {
+        return new BookingDto(0, start, end, item.getId(), item, booker, BookingStatus.WAITING);
+    }
+
     private UserDto makeUserDto(String email, String name) {
         UserDto dto = new UserDto();
         dto.setEmail(email);
@@ -310,4 +427,9 @@ class ItemServiceImplTest {
         return commentDto;
     }
 
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "items").tag("result", result).functionCounter()
+                .count();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class FullTextItemSearchEngineTest {
+
+    @Test
+    void toTsQuery() {
+        assertThat(FullTextItemSearchEngine.toTsQuery("дРелЬ"), equalTo("дРелЬ:*"));
+        assertThat(FullTextItemSearchEngine.toTsQuery(" аккумуляторная  дрель, 12V "),
+                equalTo("аккумуляторная:* & дрель:* & 12V:*"));
+        assertThat(FullTextItemSearchEngine.toTsQuery("'&!:*"), equalTo(""));
+    }
+}
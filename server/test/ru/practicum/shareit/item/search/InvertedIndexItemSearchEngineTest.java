@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.search.mode=index",
+                "spring.jpa.properties.hibernate.generate_statistics=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class InvertedIndexItemSearchEngineTest {
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void buildIndex() {
+        ((InvertedIndexItemSearchEngine) itemSearchEngine).rebuild();
+        assertThat(((InvertedIndexItemSearchEngine) itemSearchEngine).isReady(), is(true));
+    }
+
+    @Test
+    void searchFollowsItemChanges() {
+        assertThat(itemSearchEngine, instanceOf(InvertedIndexItemSearchEngine.class));
+        UserDto userDto = userService.create(new UserDto(0L, "Пётр", "index@email.com"));
+        ItemDto drill = inTransaction().execute(status -> itemService.create(
+                new ItemDto(0L, "Дрель", "Простая дрель", true, userDto, null), userDto.getId()));
+        ItemDto screwdriver = inTransaction().execute(status -> itemService.create(
+                new ItemDto(0L, "Отвертка", "Аккумуляторная отвертка", true, userDto, null), userDto.getId()));
+
+        List<ItemDto> found = search("дрЕль", userDto.getId());
+        assertThat(found, hasSize(1));
+        assertThat(found.get(0).getId(), equalTo(drill.getId()));
+
+        ItemDto update = new ItemDto();
+        update.setId(screwdriver.getId());
+        update.setName("Дрель-шуруповерт");
+        update(update, userDto.getId());
+        assertThat(search("дрель", userDto.getId()), hasSize(2));
+
+        update = new ItemDto();
+        update.setId(drill.getId());
+        update.setAvailable(false);
+        update(update, userDto.getId());
+        found = search("дрель", userDto.getId());
+        assertThat(found, hasSize(1));
+        assertThat(found.get(0).getId(), equalTo(screwdriver.getId()));
+
+        inTransaction().executeWithoutResult(status -> itemService.delete(screwdriver.getId()));
+        assertThat(search("дрель", userDto.getId()), empty());
+    }
+
+    @Test
+    void searchIgnoresRolledBackChanges() {
+        UserDto userDto = userService.create(new UserDto(0L, "Пётр", "rollback@email.com"));
+        ItemDto hammerDrill = inTransaction().execute(status -> itemService.create(
+                new ItemDto(0L, "Перфоратор", "Мощный перфоратор", true, userDto, null), userDto.getId()));
+
+        inTransaction().executeWithoutResult(status -> {
+            ItemDto update = new ItemDto();
+            update.setId(hammerDrill.getId());
+            update.setName("Молоток");
+            update.setDescription("Тяжелый молоток");
+            itemService.update(update, userDto.getId());
+            status.setRollbackOnly();
+        });
+
+        assertThat(search("молоток", userDto.getId()), empty());
+        assertThat(search("перфоратор", userDto.getId()), hasSize(1));
+    }
+
+    @Test
+    void searchLoadsOwnersWithItems() {
+        UserDto searcher = userService.create(new UserDto(0L, "Пётр", "index-searcher@email.com"));
+        for (int i = 0; i < 10; i++) {
+            UserDto owner = userService.create(new UserDto(0L, "Пётр", "index-owner" + i + "@email.com"));
+            inTransaction().execute(status -> itemService.create(
+                    new ItemDto(0L, "Стремянка", "Алюминиевая стремянка", true, owner, null), owner.getId()));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(search("стремянка", searcher.getId()), hasSize(10));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(2L));
+    }
+
+    @Test
+    void itemIdOutsideIndexFallsBackToLike() {
+        InvertedIndexItemSearchEngine engine = (InvertedIndexItemSearchEngine) itemSearchEngine;
+        UserDto userDto = userService.create(new UserDto(0L, "Пётр", "large-id@email.com"));
+        inTransaction().execute(status -> itemService.create(
+                new ItemDto(0L, "Кувалда", "Большая кувалда", true, userDto, null), userDto.getId()));
+        Item largeIdItem = new Item();
+        largeIdItem.setId(Integer.MAX_VALUE + 1L);
+        largeIdItem.setName("Кувалда");
+        largeIdItem.setAvailable(true);
+
+        inTransaction().executeWithoutResult(status -> engine.onItemSaved(null, largeIdItem));
+
+        assertThat(engine.isReady(), is(false));
+        assertThat(search("кувалда", userDto.getId()), hasSize(1));
+    }
+
+    private List<ItemDto> search(String text, long userId) {
+        return inTransaction().execute(status -> itemService.search(text, userId));
+    }
+
+    private void update(ItemDto itemDto, long userId) {
+        inTransaction().executeWithoutResult(status -> itemService.update(itemDto, userId));
+    }
+
+    private TransactionTemplate inTransaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ItemTermIndexTest {
+
+    @Test
+    void searchByWordPrefixes() {
+        ItemTermIndex index = new ItemTermIndex();
+        index.add(1, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", true);
+        index.add(2, "Отвертка", "Аккумуляторная отвертка", true);
+        index.add(3, "Клей Момент", "Тюбик суперклея марки Момент", false);
+
+        assertThat(index.search("дРелЬ"), equalTo(bitSet(1)));
+        assertThat(index.search("аккУМУляторная"), equalTo(bitSet(1, 2)));
+        assertThat(index.search("оТверТ"), equalTo(bitSet(2)));
+        assertThat(index.search("аккумуляторная отвертка"), equalTo(bitSet(2)));
+        assertThat(index.search("момент"), equalTo(bitSet()));
+        assertThat(index.search(" "), equalTo(bitSet()));
+    }
+
+    @Test
+    void updateAndRemoveItem() {
+        ItemTermIndex index = new ItemTermIndex();
+        index.add(1, "Дрель", "Ударная дрель", true);
+        index.add(2, "Дрель", "Дрель-шуруповерт", true);
+
+        index.remove(1, "Дрель", "Ударная дрель");
+        index.add(1, "Перфоратор", "Ударная дрель", false);
+
+        assertThat(index.search("дрель"), equalTo(bitSet(2)));
+        assertThat(index.search("перфоратор"), equalTo(bitSet()));
+
+        index.remove(2, "Дрель", "Дрель-шуруповерт");
+
+        assertThat(index.search("дрель"), equalTo(bitSet()));
+        assertThat(index.search("шуруп"), equalTo(bitSet()));
+        assertThat(index.keyCount(), equalTo(3));
+    }
+
+    private BitSet bitSet(int... ids) {
+        BitSet bitSet = new BitSet();
+        for (int id : ids) {
+            bitSet.set(id);
+        }
+        return bitSet;
+    }
+}
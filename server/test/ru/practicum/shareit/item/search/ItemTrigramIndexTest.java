@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ItemTrigramIndexTest {
+
+    @Test
+    void searchCandidatesBySubstring() {
+        ItemTrigramIndex index = new ItemTrigramIndex();
+        index.add(1, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", true);
+        index.add(2, "Отвертка", "Аккумуляторная отвертка", true);
+        index.add(3, "Клей Момент", "Тюбик суперклея марки Момент", false);
+        index.add(4, "Лерка", "Плашка для нарезки резьбы", true);
+
+        assertThat(index.search("дРЕл"), equalTo(bitSet(1)));
+        assertThat(index.search("рель"), equalTo(bitSet(1)));
+        assertThat(index.search("ТВЕРТ"), equalTo(bitSet(2)));
+        assertThat(index.search("ляторная"), equalTo(bitSet(1, 2)));
+        assertThat(index.search("клей"), equalTo(bitSet()));
+        assertThat(index.search("ер"), equalTo(bitSet()));
+    }
+
+    @Test
+    void updateAndRemoveItem() {
+        ItemTrigramIndex index = new ItemTrigramIndex();
+        index.add(1, "Дрель", "Ударная", true);
+        index.add(2, "Перфоратор", "Ударный", true);
+
+        index.remove(1, "Дрель", "Ударная");
+        index.add(1, "Шуруповерт", "Ударная", true);
+
+        assertThat(index.search("дрел"), equalTo(bitSet()));
+        assertThat(index.search("удар"), equalTo(bitSet(1, 2)));
+
+        index.remove(2, "Перфоратор", "Ударный");
+
+        assertThat(index.search("удар"), equalTo(bitSet(1)));
+        assertThat(index.search("ратор"), equalTo(bitSet()));
+    }
+
+    private BitSet bitSet(int... ids) {
+        BitSet bitSet = new BitSet();
+        for (int id : ids) {
+            bitSet.set(id);
+        }
+        return bitSet;
+    }
+}
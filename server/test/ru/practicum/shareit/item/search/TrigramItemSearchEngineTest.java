@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.search.mode=trigram",
+                "spring.jpa.properties.hibernate.generate_statistics=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class TrigramItemSearchEngineTest {
+
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void buildIndex() {
+        ((TrigramItemSearchEngine) itemSearchEngine).rebuild();
+        assertThat(((TrigramItemSearchEngine) itemSearchEngine).isReady(), is(true));
+    }
+
+    @Test
+    void searchLoadsOwnersWithItems() {
+        UserDto searcher = userService.create(new UserDto(0L, "Пётр", "trigram-searcher@email.com"));
+        for (int i = 0; i < 10; i++) {
+            UserDto owner = userService.create(new UserDto(0L, "Пётр", "trigram-owner" + i + "@email.com"));
+            inTransaction().execute(status -> itemService.create(
+                    new ItemDto(0L, "Стремянка", "Алюминиевая стремянка", true, owner, null), owner.getId()));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(search("ремянк", searcher.getId()), hasSize(10));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(2L));
+    }
+
+    @Test
+    void searchMatchesLikeQuery() {
+        UserDto owner = userService.create(new UserDto(0L, "Пётр", "trigram-like@email.com"));
+        for (String name : new String[]{"Ключ 10 мм", "Ключ 1_0", "Ключ 100%"}) {
+            inTransaction().execute(status -> itemService.create(
+                    new ItemDto(0L, name, "Гаечный ключ", true, owner, null), owner.getId()));
+        }
+
+        for (String query : new String[]{"клЮч 1", "ч 1_0", "1%0", "к_юч", "100\\%"}) {
+            List<Long> expected = inTransaction().execute(status -> ids(itemRepository.search(query)));
+            assertThat(query, inTransaction().execute(status -> ids(itemSearchEngine.search(query))),
+                    equalTo(expected));
+        }
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).sorted().collect(Collectors.toList());
+    }
+
+    private List<ItemDto> search(String text, long userId) {
+        return inTransaction().execute(status -> itemService.search(text, userId));
+    }
+
+    private TransactionTemplate inTransaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
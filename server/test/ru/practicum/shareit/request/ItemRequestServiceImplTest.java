@@ -132,6 +132,27 @@ class ItemRequestServiceImplTest {
         }
     }
 
+    @Test
+    void getAllByUserItemRequestsWithItems() {
+        UserDto requestor = userService.create(new UserDto(0L, "Petr", "requestor@email.com"));
+        UserDto owner = userService.create(new UserDto(0L, "Ivan", "owner@email.com"));
+        List<Long> requestIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requestIds.add(service.create(new ItemRequestDto(0, "запрос " + i, LocalDateTime.now(), null),
+                    requestor.getId()).getId());
+        }
+        for (long requestId : Arrays.asList(requestIds.get(0), requestIds.get(0), requestIds.get(2))) {
+            itemService.create(new ItemDto(0L, "Дрель", "Простая дрель", true, owner, requestId), owner.getId());
+        }
+
+        List<ItemRequestDto> itemRequests = service.getAllByUser(requestor.getId());
+
+        assertThat(itemRequests, hasSize(3));
+        assertThat(itemRequests.get(0).getItems(), hasSize(2));
+        assertThat(itemRequests.get(1).getItems(), empty());
+        assertThat(itemRequests.get(2).getItems(), contains(hasProperty("requestId", equalTo(requestIds.get(2)))));
+    }
+
     @Test
     void getAllItemRequests() {
         // given
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+class UserCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserCache userCache = new UserCache(100, Duration.ofMinutes(10), Duration.ofSeconds(30),
+            meterRegistry);
+
+    @Test
+    void cacheFoundAndMissingUsers() {
+        AtomicInteger loads = new AtomicInteger();
+        UserDto user = new UserDto(1L, "Petr", "petr@email.com");
+
+        Optional<UserDto> first = userCache.get(1, id -> {
+            loads.incrementAndGet();
+            return Optional.of(user);
+        });
+        Optional<UserDto> second = userCache.get(1, id -> {
+            loads.incrementAndGet();
+            return Optional.of(user);
+        });
+        userCache.get(2, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<UserDto> missing = userCache.get(2, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(loads.get(), is(2));
+        assertThat(second.get(), equalTo(user));
+        assertThat(second.get(), not(sameInstance(first.get())));
+        assertThat(missing.isPresent(), is(false));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count(), is(2.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count(), is(2.0));
+    }
+
+    @Test
+    void invalidateUser() {
+        userCache.get(1, id -> Optional.empty());
+
+        userCache.invalidate(1);
+
+        assertThat(userCache.get(1, id -> Optional.of(new UserDto(1L, "Petr", "petr@email.com"))).isPresent(),
+                is(true));
+    }
+}